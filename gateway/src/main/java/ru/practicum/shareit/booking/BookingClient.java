@@ -6,29 +6,39 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.AsyncClient;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final AsyncClient asyncClient;
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         AsyncClient asyncClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
                         .build()
         );
+        this.asyncClient = asyncClient;
     }
 
-    public ResponseEntity<Object> createBooking(long userId, BookItemRequestDto requestDto) {
-        return post("", userId, requestDto);
+    public ResponseEntity<Object> createBooking(long userId, String idempotencyKey, BookItemRequestDto requestDto) {
+        return post("", userId, idempotencyKey, requestDto);
     }
 
     public ResponseEntity<Object> updateBooking(long userId, Long bookingId, boolean approved) {
@@ -38,20 +48,58 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getAllBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public ResponseEntity<Object> approveBookings(long userId, BookingApprovalDto approvalDto) {
+        return patch("/approve", userId, approvalDto);
+    }
+
+    public ResponseEntity<Object> getAllBookings(long userId, BookingState state, Integer from, Integer size,
+                                                 LocalDateTime afterStart, Long afterId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        return get("?state={state}&from={from}&size={size}" + cursorQuery(parameters, afterStart, afterId),
+                userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> streamBookingEvents(long userId) {
+        return asyncClient.stream(API_PREFIX + "/stream", userId);
+    }
+
+    public ResponseEntity<Object> getBookingCounts(long userId) {
+        return get("/counts", userId);
+    }
+
+    public ResponseEntity<Object> getBookingCountsOwner(long userId) {
+        return get("/owner/counts", userId);
     }
 
     public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookingOwner(long userId, String state) {
-        return get("/owner?state={state}", userId, Map.of("state", state));
+    public ResponseEntity<Object> getBookingOwner(long userId, String state, Integer from, Integer size,
+                                                  LocalDateTime afterStart, Long afterId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "state", state,
+                "from", from,
+                "size", size
+        ));
+        return get("/owner?state={state}&from={from}&size={size}" + cursorQuery(parameters, afterStart, afterId),
+                userId, parameters);
+    }
+
+    private static String cursorQuery(Map<String, Object> parameters, LocalDateTime afterStart, Long afterId) {
+        StringBuilder query = new StringBuilder();
+        if (afterStart != null) {
+            parameters.put("afterStart", afterStart);
+            query.append("&afterStart={afterStart}");
+        }
+        if (afterId != null) {
+            parameters.put("afterId", afterId);
+            query.append("&afterId={afterId}");
+        }
+        return query.toString();
     }
 }
@@ -5,14 +5,21 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.validator.ValidBookingState;
 import ru.practicum.shareit.constant.UserConstant;
 
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
@@ -23,8 +30,10 @@ public class BookingController {
 
 	@PostMapping
 	public ResponseEntity<Object> createBooking(@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId,
+												@RequestHeader(value = UserConstant.IDEMPOTENCY_KEY, required = false)
+												String idempotencyKey,
 												@RequestBody @Valid BookItemRequestDto requestDto) {
-		return bookingClient.createBooking(userId, requestDto);
+		return bookingClient.createBooking(userId, idempotencyKey, requestDto);
 	}
 
 	@PatchMapping("/{booking-id}")
@@ -34,14 +43,39 @@ public class BookingController {
 		return bookingClient.updateBooking(userId, bookingId, approved);
 	}
 
+	@PatchMapping("/approve")
+	public ResponseEntity<Object> approveBookings(@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId,
+												  @RequestBody @Valid BookingApprovalDto approvalDto) {
+		return bookingClient.approveBookings(userId, approvalDto);
+	}
+
 	@GetMapping
 	public ResponseEntity<Object> getAllBookings(@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId,
 											  @RequestParam(name = "state", defaultValue = "all") String stateParam,
 											  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-											  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+											  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+											  @RequestParam(name = "afterStart", required = false)
+											  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+											  @RequestParam(name = "afterId", required = false) Long afterId) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-		return bookingClient.getAllBookings(userId, state, from, size);
+		return bookingClient.getAllBookings(userId, state, from, size, afterStart, afterId);
+	}
+
+	@GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> streamBookingEvents(
+			@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId) {
+		return bookingClient.streamBookingEvents(userId);
+	}
+
+	@GetMapping("/counts")
+	public ResponseEntity<Object> getBookingCounts(@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId) {
+		return bookingClient.getBookingCounts(userId);
+	}
+
+	@GetMapping("/owner/counts")
+	public ResponseEntity<Object> getBookingCountsOwner(@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId) {
+		return bookingClient.getBookingCountsOwner(userId);
 	}
 
 	@GetMapping("/{booking-id}")
@@ -53,7 +87,12 @@ public class BookingController {
 	@GetMapping("/owner")
 	public ResponseEntity<Object> getBookingsOwner(
 			@RequestHeader(UserConstant.X_SHARER_USER_ID) Long userId,
-			@RequestParam(required = false, defaultValue = "ALL") @ValidBookingState String state) {
-		return bookingClient.getBookingOwner(userId, state);
+			@RequestParam(required = false, defaultValue = "ALL") @ValidBookingState String state,
+			@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+			@RequestParam(name = "afterStart", required = false)
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+			@RequestParam(name = "afterId", required = false) Long afterId) {
+		return bookingClient.getBookingOwner(userId, state, from, size, afterStart, afterId);
 	}
 }
\ No newline at end of file
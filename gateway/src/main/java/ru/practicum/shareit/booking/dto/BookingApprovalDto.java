@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+public class BookingApprovalDto {
+	@NotEmpty
+	@Size(max = 100)
+	private List<@NotNull Long> bookingIds;
+	@NotNull
+	private Boolean approved;
+}
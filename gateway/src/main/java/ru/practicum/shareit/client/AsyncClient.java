@@ -0,0 +1,147 @@
+package ru.practicum.shareit.client;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import ru.practicum.shareit.constant.UserConstant;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+
+/**
+ * Non-blocking client for the long-lived server calls (event streams and long polls). It runs on the JDK
+ * HttpClient with its own connections and virtual threads, so parked calls hold neither a pooled
+ * RestTemplate connection nor a servlet thread while they wait.
+ */
+@Component
+public class AsyncClient {
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final String serverUrl;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient http;
+
+    public AsyncClient(@Value("${shareit-server.url}") String serverUrl) {
+        this.serverUrl = serverUrl;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .executor(executor)
+                .build();
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> get(String path, long userId, Duration wait) {
+        HttpRequest request = request(path, userId, MediaType.APPLICATION_JSON, wait.plus(RESPONSE_TIMEOUT));
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> ResponseEntity.status(response.statusCode())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(response.body()));
+    }
+
+    public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> stream(String path, long userId) {
+        HttpRequest request = request(path, userId, MediaType.TEXT_EVENT_STREAM, RESPONSE_TIMEOUT);
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofPublisher())
+                .thenCompose(response -> {
+                    if (response.statusCode() != HttpStatus.OK.value()) {
+                        return error(response);
+                    }
+                    ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+                    response.body().subscribe(new Relay(emitter));
+                    return CompletableFuture.completedFuture(ResponseEntity.ok()
+                            .header("X-Accel-Buffering", "no")
+                            .contentType(MediaType.TEXT_EVENT_STREAM)
+                            .body(emitter));
+                });
+    }
+
+    @PreDestroy
+    public void close() {
+        http.close();
+        executor.shutdownNow();
+    }
+
+    private HttpRequest request(String path, long userId, MediaType accept, Duration timeout) {
+        return HttpRequest.newBuilder(URI.create(serverUrl + path))
+                .header("Accept", accept.toString())
+                .header(UserConstant.X_SHARER_USER_ID, String.valueOf(userId))
+                .timeout(timeout)
+                .GET()
+                .build();
+    }
+
+    private static CompletableFuture<ResponseEntity<ResponseBodyEmitter>> error(
+            HttpResponse<Flow.Publisher<List<ByteBuffer>>> response) {
+        HttpResponse.BodySubscriber<byte[]> body = HttpResponse.BodySubscribers.ofByteArray();
+        response.body().subscribe(body);
+        return body.getBody().toCompletableFuture()
+                .thenApply(bytes -> {
+                    ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+                    try {
+                        emitter.send(bytes, MediaType.APPLICATION_JSON);
+                        emitter.complete();
+                    } catch (IOException e) {
+                        emitter.completeWithError(e);
+                    }
+                    return ResponseEntity.status(response.statusCode())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(emitter);
+                });
+    }
+
+    private static final class Relay implements Flow.Subscriber<List<ByteBuffer>> {
+        private final ResponseBodyEmitter emitter;
+        private Flow.Subscription subscription;
+
+        Relay(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            emitter.onCompletion(subscription::cancel);
+            emitter.onTimeout(subscription::cancel);
+            emitter.onError(error -> subscription.cancel());
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            try {
+                for (ByteBuffer buffer : buffers) {
+                    byte[] bytes = new byte[buffer.remaining()];
+                    buffer.get(bytes);
+                    emitter.send(bytes, MediaType.TEXT_EVENT_STREAM);
+                }
+                subscription.request(1);
+            } catch (IOException | IllegalStateException e) {
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            emitter.complete();
+        }
+
+        @Override
+        public void onComplete() {
+            emitter.complete();
+        }
+    }
+}
@@ -2,5 +2,6 @@ package ru.practicum.shareit.constant;
 
 public class UserConstant {
     public static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
 
 }
@@ -10,8 +10,14 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchQuery;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -27,8 +33,8 @@ public class ItemClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> addItem(long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public ResponseEntity<Object> addItem(long userId, String idempotencyKey, ItemDto itemDto) {
+        return post("", userId, idempotencyKey, itemDto);
     }
 
     public ResponseEntity<Object> updateItem(long userId, long itemId, ItemDto itemDto) {
@@ -39,15 +45,72 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
+    public ResponseEntity<Object> getItems(long userId, List<Long> itemIds) {
+        String ids = itemIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        return get("/batch?ids={ids}", userId, Map.of("ids", ids));
+    }
+
+    public ResponseEntity<Object> getComments(long userId, long itemId, Long afterId, Integer size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("size", size));
+        String path = "/" + itemId + "/comments?size={size}";
+        if (afterId != null) {
+            parameters.put("after", afterId);
+            path += "&after={after}";
+        }
+        return get(path, userId, parameters);
+    }
+
     public ResponseEntity<Object> getAllItems(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> searchItems(long userId, String text) {
-        return get("/search?text={text}", userId, Map.of("text", text));
+    public ResponseEntity<Object> searchItems(long userId, ItemSearchQuery query) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", query.getText());
+        parameters.put("fuzzy", query.isFuzzy());
+        parameters.put("from", query.getFrom());
+        parameters.put("size", query.getSize());
+        StringBuilder path = new StringBuilder("/search?text={text}&fuzzy={fuzzy}&from={from}&size={size}");
+        ItemSearchFilter filter = query.getFilter();
+        if (filter != null) {
+            if (filter.getAvailable() != null) {
+                parameters.put("available", filter.getAvailable());
+                path.append("&available={available}");
+            }
+            if (filter.getRequestId() != null) {
+                parameters.put("requestId", filter.getRequestId());
+                path.append("&requestId={requestId}");
+            }
+            if (filter.getOwnerIds() != null && !filter.getOwnerIds().isEmpty()) {
+                parameters.put("ownerIds", filter.getOwnerIds().stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(",")));
+                path.append("&ownerIds={ownerIds}");
+            }
+        }
+        if (query.getStart() != null || query.getEnd() != null) {
+            parameters.put("start", query.getStart());
+            parameters.put("end", query.getEnd());
+            path.append("&start={start}&end={end}");
+        }
+        if (query.getAfterId() != null) {
+            parameters.put("afterId", query.getAfterId());
+            path.append("&afterId={afterId}");
+        }
+        return get(path.toString(), userId, parameters);
+    }
+
+    public ResponseEntity<Object> suggestItems(long userId, String prefix, int limit) {
+        return get("/suggest?prefix={prefix}&limit={limit}", userId, Map.of("prefix", prefix, "limit", limit));
     }
 
     public ResponseEntity<Object> createComment(long userId, long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
+
+    public ResponseEntity<Object> getAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, Map.of("from", from, "to", to));
+    }
 }
@@ -1,15 +1,26 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.constant.UserConstant;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchQuery;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/items")
@@ -21,8 +32,10 @@ public class ItemController {
 
     @PostMapping
     public ResponseEntity<Object> createItem(@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId,
+                                             @RequestHeader(value = UserConstant.IDEMPOTENCY_KEY, required = false)
+                                             String idempotencyKey,
                                              @Valid @RequestBody ItemDto itemDto) {
-        return itemClient.addItem(userId, itemDto);
+        return itemClient.addItem(userId, idempotencyKey, itemDto);
     }
 
     @PatchMapping("/{item-id}")
@@ -32,12 +45,27 @@ public class ItemController {
         return itemClient.updateItem(userId, itemId, itemUpdateDtoDto);
     }
 
+    @GetMapping("/batch")
+    public ResponseEntity<Object> getItems(@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId,
+                                           @RequestParam @NotEmpty @Size(max = 100) List<@NotNull Long> ids) {
+        return itemClient.getItems(userId, ids);
+    }
+
     @GetMapping("/{item-id}")
     public ResponseEntity<Object> getItem(@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId,
                                           @PathVariable("item-id") long itemId) {
         return itemClient.getItem(userId, itemId);
     }
 
+    @GetMapping("/{item-id}/comments")
+    public ResponseEntity<Object> getComments(@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId,
+                                              @PathVariable("item-id") long itemId,
+                                              @RequestParam(name = "after", required = false) Long afterId,
+                                              @Positive @Max(100) @RequestParam(name = "size", defaultValue = "10")
+                                              Integer size) {
+        return itemClient.getComments(userId, itemId, afterId, size);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getAllItems(@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId) {
         return itemClient.getAllItems(userId);
@@ -45,8 +73,47 @@ public class ItemController {
 
     @GetMapping("/search")
     public ResponseEntity<Object> searchItems(@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId,
-                                              @NotNull @RequestParam String text) {
-        return itemClient.searchItems(userId, text);
+                                              @NotNull @RequestParam String text,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime start,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime end,
+                                              @RequestParam(defaultValue = "false") boolean fuzzy,
+                                              @RequestParam(required = false) Boolean available,
+                                              @RequestParam(required = false) Long requestId,
+                                              @RequestParam(required = false) List<Long> ownerIds,
+                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
+                                              Integer from,
+                                              @Positive @RequestParam(name = "size", defaultValue = "10")
+                                              Integer size,
+                                              @RequestParam(name = "afterId", required = false) Long afterId) {
+        ItemSearchFilter filter = null;
+        if (available != null || requestId != null || ownerIds != null) {
+            filter = ItemSearchFilter.builder()
+                    .available(available)
+                    .requestId(requestId)
+                    .ownerIds(ownerIds)
+                    .build();
+        }
+        return itemClient.searchItems(userId, ItemSearchQuery.builder()
+                .text(text)
+                .start(start)
+                .end(end)
+                .fuzzy(fuzzy)
+                .filter(filter)
+                .from(from)
+                .size(size)
+                .afterId(afterId)
+                .build());
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItems(@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId,
+                                               @NotNull @RequestParam String prefix,
+                                               @Positive @Max(10) @RequestParam(defaultValue = "10") int limit) {
+        return itemClient.suggestItems(userId, prefix, limit);
     }
 
     @PostMapping("/{item-id}/comment")
@@ -55,4 +122,14 @@ public class ItemController {
                                                @Valid @RequestBody CommentDto commentDto) {
         return itemClient.createComment(userId, itemId, commentDto);
     }
+
+    @GetMapping("/{item-id}/availability")
+    public ResponseEntity<Object> getAvailability(@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId,
+                                                  @PathVariable("item-id") long itemId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime to) {
+        return itemClient.getAvailability(userId, itemId, from, to);
+    }
 }
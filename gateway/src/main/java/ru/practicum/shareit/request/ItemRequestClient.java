@@ -7,36 +7,66 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.AsyncClient;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
+    private final AsyncClient asyncClient;
+
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             AsyncClient asyncClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
                         .build()
         );
+        this.asyncClient = asyncClient;
     }
 
     public ResponseEntity<Object> addRequest(long userId, ItemRequestDto item) {
         return post("", userId, item);
     }
 
-    public ResponseEntity<Object> getAllRequests(long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> getAllRequests(long userId, Integer from, Integer size, Long afterId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "from", from,
+                "size", size
+        ));
+        return get("?from={from}&size={size}" + cursorQuery(parameters, afterId), userId, parameters);
+    }
+
+    public ResponseEntity<Object> getAllByUser(long userId, Integer from, Integer size, Long afterId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "from", from,
+                "size", size
+        ));
+        return get("/all?from={from}&size={size}" + cursorQuery(parameters, afterId), userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllByUser(long userId) {
-        return get("/all", userId);
+    public CompletableFuture<ResponseEntity<Object>> pollMatches(long userId, Integer timeout) {
+        return asyncClient.get(API_PREFIX + "/matches?timeout=" + timeout, userId, Duration.ofSeconds(timeout));
     }
 
     public ResponseEntity<Object> getItemRequest(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
+
+    private static String cursorQuery(Map<String, Object> parameters, Long afterId) {
+        if (afterId == null) {
+            return "";
+        }
+        parameters.put("afterId", afterId);
+        return "&afterId={afterId}";
+    }
 }
@@ -1,6 +1,9 @@
 package ru.practicum.shareit.request;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +12,8 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.constant.UserConstant;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
@@ -24,13 +29,28 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId) {
-        return itemRequestClient.getAllRequests(userId);
+    public ResponseEntity<Object> getAll(@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId,
+                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                         @RequestParam(name = "afterId", required = false) Long afterId) {
+        return itemRequestClient.getAllRequests(userId, from, size, afterId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllFromUser(@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId) {
-        return itemRequestClient.getAllByUser(userId);
+    public ResponseEntity<Object> getAllFromUser(@RequestHeader(UserConstant.X_SHARER_USER_ID) long userId,
+                                                 @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
+                                                 Integer from,
+                                                 @Positive @RequestParam(name = "size", defaultValue = "10")
+                                                 Integer size,
+                                                 @RequestParam(name = "afterId", required = false) Long afterId) {
+        return itemRequestClient.getAllByUser(userId, from, size, afterId);
+    }
+
+    @GetMapping("/matches")
+    public CompletableFuture<ResponseEntity<Object>> pollMatches(
+            @RequestHeader(UserConstant.X_SHARER_USER_ID) long userId,
+            @Positive @Max(60) @RequestParam(name = "timeout", defaultValue = "30") Integer timeout) {
+        return itemRequestClient.pollMatches(userId, timeout);
     }
 
     @GetMapping("/{request-id}")
@@ -0,0 +1,121 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.client.AsyncClient;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.request.ItemRequestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class AsyncClientTest {
+    private static final String EVENT = "event:booking\ndata:{\"bookingId\":1}\n\n";
+    private static final String NOT_FOUND = "{\"error\":\"Пользователь не найден\"}";
+
+    private HttpServer server;
+    private AsyncClient asyncClient;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/bookings/stream", exchange -> {
+            boolean known = "1".equals(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"));
+            byte[] body = (known ? EVENT : NOT_FOUND).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", known ? "text/event-stream" : "application/json");
+            exchange.sendResponseHeaders(known ? 200 : 404, known ? 0 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/requests/matches", exchange -> {
+            byte[] body = ("[{\"requestId\":" + exchange.getRequestURI().getQuery().replace("timeout=", "") + "}]")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        String serverUrl = "http://localhost:" + server.getAddress().getPort();
+        asyncClient = new AsyncClient(serverUrl);
+        BookingClient bookingClient = new BookingClient(serverUrl, new RestTemplateBuilder(), asyncClient);
+        ItemRequestClient itemRequestClient = new ItemRequestClient(serverUrl, new RestTemplateBuilder(), asyncClient);
+        mockMvc = MockMvcBuilders.standaloneSetup(new BookingController(bookingClient),
+                new ItemRequestController(itemRequestClient)).build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        asyncClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testStreamRelaysServerEvents() throws Exception {
+        MvcResult result = mockMvc.perform(get("/bookings/stream")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5_000);
+
+        MvcResult relayed = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!relayed.getResponse().getContentAsString(StandardCharsets.UTF_8).equals(EVENT)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(EVENT, relayed.getResponse().getContentAsString(StandardCharsets.UTF_8));
+        assertTrue(MediaType.TEXT_EVENT_STREAM.isCompatibleWith(
+                MediaType.parseMediaType(relayed.getResponse().getContentType())));
+    }
+
+    @Test
+    public void testStreamForwardsServerError() throws Exception {
+        MvcResult result = mockMvc.perform(get("/bookings/stream")
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5_000);
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testPollForwardsServerResponse() throws Exception {
+        MvcResult result = mockMvc.perform(get("/requests/matches")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("timeout", "7"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5_000);
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"requestId\":7}]"));
+    }
+}
@@ -11,15 +11,25 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import ru.practicum.shareit.booking.BookingClient;
 import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
+
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,7 +53,7 @@ public class BookingControllerTest {
 
     @Test
     public void testCreateBooking() throws Exception {
-        when(bookingClient.createBooking(anyLong(), any(BookItemRequestDto.class)))
+        when(bookingClient.createBooking(anyLong(), isNull(), any(BookItemRequestDto.class)))
                 .thenReturn(new ResponseEntity<>(HttpStatus.CREATED));
 
         mockMvc.perform(post("/bookings")
@@ -53,6 +63,40 @@ public class BookingControllerTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    public void testStreamBookingEvents() throws Exception {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        when(bookingClient.streamBookingEvents(1L)).thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(emitter)));
+
+        MvcResult result = mockMvc.perform(get("/bookings/stream")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send("event:booking\ndata:{\"bookingId\":1}\n\n".getBytes(StandardCharsets.UTF_8),
+                MediaType.TEXT_EVENT_STREAM);
+        emitter.complete();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string("event:booking\ndata:{\"bookingId\":1}\n\n"));
+    }
+
+    @Test
+    public void testCreateBookingForwardsIdempotencyKey() throws Exception {
+        when(bookingClient.createBooking(anyLong(), eq("retry-1"), any(BookItemRequestDto.class)))
+                .thenReturn(new ResponseEntity<>(HttpStatus.CREATED));
+
+        mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookItemRequestDto)))
+                .andExpect(status().isCreated());
+    }
+
     @Test
     public void testUpdateBooking() throws Exception {
         when(bookingClient.updateBooking(anyLong(), anyLong(), anyBoolean()))
@@ -64,9 +108,32 @@ public class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void testApproveBookings() throws Exception {
+        when(bookingClient.approveBookings(anyLong(), any(BookingApprovalDto.class)))
+                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        mockMvc.perform(patch("/bookings/approve")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookingApprovalDto(List.of(1L, 2L), true))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testApproveBookingsShouldRejectTooManyIds() throws Exception {
+        List<Long> bookingIds = LongStream.rangeClosed(1, 101).boxed().toList();
+
+        mockMvc.perform(patch("/bookings/approve")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookingApprovalDto(bookingIds, true))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testGetAllBookings() throws Exception {
-        when(bookingClient.getAllBookings(anyLong(), any(BookingState.class), anyInt(), anyInt()))
+        when(bookingClient.getAllBookings(anyLong(), any(BookingState.class), anyInt(), anyInt(), isNull(), isNull()))
                 .thenReturn(new ResponseEntity<>(HttpStatus.OK));
 
         mockMvc.perform(get("/bookings")
@@ -89,7 +156,7 @@ public class BookingControllerTest {
 
     @Test
     public void testGetBookingsOwner() throws Exception {
-        when(bookingClient.getBookingOwner(anyLong(), anyString()))
+        when(bookingClient.getBookingOwner(anyLong(), anyString(), anyInt(), anyInt(), isNull(), isNull()))
                 .thenReturn(new ResponseEntity<>(HttpStatus.OK));
 
         mockMvc.perform(get("/bookings/owner")
@@ -97,4 +164,14 @@ public class BookingControllerTest {
                         .param("state", "ALL"))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    public void testGetBookingCounts() throws Exception {
+        when(bookingClient.getBookingCounts(anyLong()))
+                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        mockMvc.perform(get("/bookings/counts")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk());
+    }
 }
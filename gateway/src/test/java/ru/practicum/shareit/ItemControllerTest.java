@@ -16,8 +16,14 @@ import ru.practicum.shareit.item.ItemClient;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchQuery;
+
+import java.time.LocalDateTime;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -79,13 +85,65 @@ public class ItemControllerTest {
 
     @Test
     public void testSearchItems() throws Exception {
-        when(itemClient.searchItems(anyLong(), any(String.class)))
+        ItemSearchQuery query = ItemSearchQuery.builder()
+                .text("test")
+                .from(0)
+                .size(10)
+                .build();
+        when(itemClient.searchItems(1L, query))
                 .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+        when(itemClient.searchItems(1L, ItemSearchQuery.builder()
+                .text("test")
+                .filter(ItemSearchFilter.builder().available(false).build())
+                .from(0)
+                .size(10)
+                .build()))
+                .thenReturn(new ResponseEntity<>(HttpStatus.ACCEPTED));
 
         mockMvc.perform(get("/items/search")
                         .header("X-Sharer-User-Id", 1L)
                         .param("text", "test"))
                 .andExpect(status().isOk());
+        mockMvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("text", "test")
+                        .param("available", "false"))
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    public void testSuggestItems() throws Exception {
+        when(itemClient.suggestItems(anyLong(), any(String.class), anyInt()))
+                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        mockMvc.perform(get("/items/suggest")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("prefix", "дре")
+                        .param("limit", "5"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testGetItems() throws Exception {
+        when(itemClient.getItems(anyLong(), anyList()))
+                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        mockMvc.perform(get("/items/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("ids", "1,2,3"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testGetComments() throws Exception {
+        when(itemClient.getComments(anyLong(), anyLong(), anyLong(), anyInt()))
+                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        mockMvc.perform(get("/items/{item-id}/comments", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("after", "5")
+                        .param("size", "20"))
+                .andExpect(status().isOk());
     }
 
     @Test
@@ -99,4 +157,16 @@ public class ItemControllerTest {
                         .content(objectMapper.writeValueAsString(commentDto)))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    public void testGetAvailability() throws Exception {
+        when(itemClient.getAvailability(anyLong(), anyLong(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        mockMvc.perform(get("/items/{item-id}/availability", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-01T12:00:00"))
+                .andExpect(status().isOk());
+    }
 }
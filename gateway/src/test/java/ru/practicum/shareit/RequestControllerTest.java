@@ -11,15 +11,21 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.request.ItemRequestClient;
 import ru.practicum.shareit.request.ItemRequestController;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -57,7 +63,7 @@ public class RequestControllerTest {
 
     @Test
     public void testGetAll() throws Exception {
-        when(itemRequestClient.getAllRequests(anyLong()))
+        when(itemRequestClient.getAllRequests(anyLong(), anyInt(), anyInt(), isNull()))
                 .thenReturn(new ResponseEntity<>(HttpStatus.OK));
 
         mockMvc.perform(get("/requests")
@@ -65,9 +71,21 @@ public class RequestControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void testGetAllAfterCursor() throws Exception {
+        when(itemRequestClient.getAllRequests(1L, 0, 20, 5L))
+                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        mockMvc.perform(get("/requests")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("size", "20")
+                        .param("afterId", "5"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     public void testGetAllFromUser() throws Exception {
-        when(itemRequestClient.getAllByUser(anyLong()))
+        when(itemRequestClient.getAllByUser(anyLong(), anyInt(), anyInt(), isNull()))
                 .thenReturn(new ResponseEntity<>(HttpStatus.OK));
 
         mockMvc.perform(get("/requests/all")
@@ -75,6 +93,21 @@ public class RequestControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void testPollMatches() throws Exception {
+        when(itemRequestClient.pollMatches(1L, 15))
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.OK)));
+
+        MvcResult result = mockMvc.perform(get("/requests/matches")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("timeout", "15"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+    }
+
     @Test
     public void testGetItemRequest() throws Exception {
         when(itemRequestClient.getItemRequest(anyLong(), anyLong()))
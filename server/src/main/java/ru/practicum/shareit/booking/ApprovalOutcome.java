@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking;
+
+public enum ApprovalOutcome {
+    UPDATED,
+    NOT_FOUND,
+    NOT_OWNER,
+    NOT_WAITING
+}
@@ -4,12 +4,20 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.constant.UserConstant;
+import ru.practicum.shareit.idempotency.IdempotencyCache;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @AllArgsConstructor
@@ -18,12 +26,16 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 public class BookingController {
     BookingService bookingService;
+    IdempotencyCache idempotencyCache;
 
     @PostMapping
     public BookingInputDto createBooking(@RequestHeader(UserConstant.X_SHARER_USER_ID) Long bookerId,
+                                         @RequestHeader(value = UserConstant.IDEMPOTENCY_KEY, required = false)
+                                         String idempotencyKey,
                                          @RequestBody BookingDto bookingDto) {
         log.info("Выполнение createBooking");
-        return bookingService.createBooking(bookerId, bookingDto);
+        return idempotencyCache.execute(bookerId, "POST /bookings", idempotencyKey, bookingDto,
+                BookingInputDto.class, () -> bookingService.createBooking(bookerId, bookingDto));
     }
 
     @PatchMapping("/{booking-id}")
@@ -34,6 +46,31 @@ public class BookingController {
         return bookingService.updateBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/approve")
+    public List<BookingApprovalResultDto> approveBookings(@RequestHeader(UserConstant.X_SHARER_USER_ID) Long userId,
+                                                          @RequestBody BookingApprovalDto bookingApprovalDto) {
+        log.info("Выполнение approveBookings");
+        return bookingService.approveBookings(userId, bookingApprovalDto);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBookingEvents(@RequestHeader(UserConstant.X_SHARER_USER_ID) Long userId) {
+        log.info("Выполнение streamBookingEvents");
+        return bookingService.streamBookingEvents(userId);
+    }
+
+    @GetMapping("/counts")
+    public Map<State, Long> getBookingCounts(@RequestHeader(UserConstant.X_SHARER_USER_ID) Long userId) {
+        log.info("Выполнение getBookingCounts");
+        return bookingService.getBookingCounts(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public Map<State, Long> getBookingCountsOwner(@RequestHeader(UserConstant.X_SHARER_USER_ID) Long userId) {
+        log.info("Выполнение getBookingCountsOwner");
+        return bookingService.getBookingCountsOwner(userId);
+    }
+
     @GetMapping("/{booking-id}")
     public BookingInputDto getBookingById(@RequestHeader(UserConstant.X_SHARER_USER_ID) Long userId,
                                           @PathVariable("booking-id") Long bookingId) {
@@ -43,15 +80,27 @@ public class BookingController {
 
     @GetMapping
     public List<BookingInputDto> getBookings(@RequestHeader(UserConstant.X_SHARER_USER_ID) Long userId,
-                                             @RequestParam(name = "state", defaultValue = "ALL") String state) {
+                                             @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                             @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                             @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                             @RequestParam(name = "afterStart", required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime afterStart,
+                                             @RequestParam(name = "afterId", required = false) Long afterId) {
         log.info("Выполнение getBookings");
-        return bookingService.getBookings(userId, state);
+        return bookingService.getBookings(userId, state, from, size, afterStart, afterId);
     }
 
     @GetMapping("/owner")
     public List<BookingInputDto> getBookingsOwner(@RequestHeader(UserConstant.X_SHARER_USER_ID) Long userId,
-                                                  @RequestParam(name = "state", defaultValue = "ALL") String state) {
+                                                  @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                  @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                  @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                  @RequestParam(name = "afterStart", required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime afterStart,
+                                                  @RequestParam(name = "afterId", required = false) Long afterId) {
         log.info("Выполнение getBookingsOwner");
-        return bookingService.getBookingsOwner(userId, state);
+        return bookingService.getBookingsOwner(userId, state, from, size, afterStart, afterId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * WAITING and APPROVED booking periods per item, sorted by start, plus an hourly occupancy bitmap.
+ * Periods of one item never overlap, so an overlap check is a single lower-entry lookup.
+ * Call everything but {@link #withItemLock} under that lock.
+ */
+@Component
+public class BookingIntervalIndex {
+    private static final int STRIPES = 64;
+    private static final int HORIZON_HOURS = 2 * 366 * 24;
+    private static final long REBASE_AFTER_HOURS = 7 * 24;
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Lock[] locks = new Lock[STRIPES];
+    private final Map<Long, ItemPeriods> items = new ConcurrentHashMap<>();
+
+    public BookingIntervalIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withItemLock(Long itemId, Supplier<T> action) {
+        Lock lock = locks[(int) Math.floorMod(itemId, STRIPES)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemPeriods item = current(itemId);
+        Map.Entry<LocalDateTime, Period> previous = item.periods.lowerEntry(end);
+        return previous != null && previous.getValue().end().isAfter(start);
+    }
+
+    public List<AvailabilitySlotDto> availability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        ItemPeriods item = current(itemId);
+        List<AvailabilitySlotDto> slots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        while (cursor.isBefore(to)) {
+            int index = cursor.isBefore(item.base) ? -1 : (int) ChronoUnit.HOURS.between(item.base, cursor);
+            boolean busy = index >= 0 && item.hours.get(index);
+            int next;
+            if (index < 0) {
+                next = 0;
+            } else {
+                next = busy ? item.hours.nextClearBit(index) : item.hours.nextSetBit(index);
+            }
+
+            LocalDateTime slotEnd = next < 0 ? to : item.base.plusHours(next);
+            if (slotEnd.isAfter(to)) {
+                slotEnd = to;
+            }
+            appendSlot(slots, cursor, slotEnd, !busy);
+            cursor = slotEnd;
+        }
+        return slots;
+    }
+
+    public void add(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        ItemPeriods item = items.get(itemId);
+        if (item != null) {
+            item.periods.put(start, new Period(bookingId, end));
+            item.mark(start, end);
+        }
+    }
+
+    public void remove(Long itemId, Long bookingId, LocalDateTime start) {
+        ItemPeriods item = items.get(itemId);
+        if (item != null) {
+            Period period = item.periods.get(start);
+            if (period != null && period.bookingId().equals(bookingId)) {
+                item.periods.remove(start);
+                item.unmark(start, period.end());
+            }
+        }
+    }
+
+    public void invalidate(Long itemId) {
+        items.remove(itemId);
+    }
+
+    private ItemPeriods current(Long itemId) {
+        ItemPeriods item = items.computeIfAbsent(itemId, this::load);
+        LocalDateTime now = LocalDateTime.now();
+        while (!item.periods.isEmpty() && item.periods.firstEntry().getValue().end().isBefore(now)) {
+            item.periods.pollFirstEntry();
+        }
+        if (ChronoUnit.HOURS.between(item.base, now) > REBASE_AFTER_HOURS) {
+            item.rebase(now);
+        }
+        return item;
+    }
+
+    private ItemPeriods load(Long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        ItemPeriods item = new ItemPeriods();
+        for (BookingPeriod booking : bookingRepository.findByItem_IdAndStatusInAndEndIsAfter(itemId,
+                ACTIVE_STATUSES, now)) {
+            item.periods.merge(booking.getStart(), new Period(booking.getId(), booking.getEnd()),
+                    (first, second) -> first.end().isAfter(second.end()) ? first : second);
+        }
+        item.rebase(now);
+        return item;
+    }
+
+    private static void appendSlot(List<AvailabilitySlotDto> slots, LocalDateTime start, LocalDateTime end,
+                                   boolean free) {
+        if (!slots.isEmpty() && slots.getLast().getFree() == free) {
+            slots.getLast().setEnd(end);
+        } else {
+            slots.add(AvailabilitySlotDto.builder()
+                    .start(start)
+                    .end(end)
+                    .free(free)
+                    .build());
+        }
+    }
+
+    private record Period(Long bookingId, LocalDateTime end) {
+    }
+
+    private static final class ItemPeriods {
+        final NavigableMap<LocalDateTime, Period> periods = new TreeMap<>();
+        final BitSet hours = new BitSet();
+        LocalDateTime base;
+
+        void rebase(LocalDateTime now) {
+            base = now.truncatedTo(ChronoUnit.HOURS);
+            hours.clear();
+            periods.forEach((start, period) -> mark(start, period.end()));
+        }
+
+        void mark(LocalDateTime start, LocalDateTime end) {
+            hours.set(floorHour(start), ceilHour(end));
+        }
+
+        void unmark(LocalDateTime start, LocalDateTime end) {
+            int from = floorHour(start);
+            int to = ceilHour(end);
+            hours.clear(from, to);
+
+            LocalDateTime rangeStart = base.plusHours(from);
+            LocalDateTime rangeEnd = base.plusHours(to);
+            Map.Entry<LocalDateTime, Period> previous = periods.lowerEntry(rangeStart);
+            if (previous != null && previous.getValue().end().isAfter(rangeStart)) {
+                mark(previous.getKey(), previous.getValue().end());
+            }
+            periods.subMap(rangeStart, true, rangeEnd, false)
+                    .forEach((periodStart, period) -> mark(periodStart, period.end()));
+        }
+
+        private int floorHour(LocalDateTime time) {
+            if (!time.isAfter(base)) {
+                return 0;
+            }
+            return (int) Math.min(ChronoUnit.HOURS.between(base, time), HORIZON_HOURS);
+        }
+
+        private int ceilHour(LocalDateTime time) {
+            int hour = floorHour(time);
+            return hour < HORIZON_HOURS && base.plusHours(hour).isBefore(time) ? hour + 1 : hour;
+        }
+    }
+}
@@ -2,7 +2,9 @@ package ru.practicum.shareit.booking;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
@@ -36,6 +38,34 @@ public class BookingMapper {
                 .toList();
     }
 
+    public static List<BookingInputDto> mapViewsToBookingInputDtoList(List<BookingView> bookings) {
+        return bookings.stream()
+                .map(BookingMapper::toBookingInputDto)
+                .toList();
+    }
+
+    public static BookingInputDto toBookingInputDto(BookingView booking) {
+        return BookingInputDto.builder()
+                .id(booking.getId())
+                .start(booking.getStart().toString())
+                .end(booking.getEnd().toString())
+                .status(booking.getStatus().name())
+                .booker(UserDto.builder()
+                        .id(booking.getBookerId())
+                        .name(booking.getBookerName())
+                        .email(booking.getBookerEmail())
+                        .build())
+                .item(ItemDto.builder()
+                        .id(booking.getItemId())
+                        .name(booking.getItemName())
+                        .description(booking.getItemDescription())
+                        .available(booking.getItemAvailable())
+                        .owner(booking.getItemOwnerId())
+                        .requestId(booking.getItemRequestId())
+                        .build())
+                .build();
+    }
+
     public static BookingInputDto toBookingInputDto(Booking booking, UserDto userDto, ItemDto itemDto) {
         return BookingInputDto.builder()
                 .id(booking.getId())
@@ -46,4 +76,28 @@ public class BookingMapper {
                 .item(itemDto)
                 .build();
     }
+
+    public static BookingEventDto toBookingEventDto(Booking booking) {
+        return BookingEventDto.builder()
+                .bookingId(booking.getId())
+                .itemId(booking.getItem().getId())
+                .bookerId(booking.getBooker().getId())
+                .ownerId(booking.getItem().getOwner().getId())
+                .status(booking.getStatus().name())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
+    }
+
+    public static BookingEventDto toBookingEventDto(BookingView booking) {
+        return BookingEventDto.builder()
+                .bookingId(booking.getId())
+                .itemId(booking.getItemId())
+                .bookerId(booking.getBookerId())
+                .ownerId(booking.getItemOwnerId())
+                .status(booking.getStatus().name())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
+    }
 }
@@ -1,34 +1,138 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerId(Long bookerId, Sort sort);
+    @Override
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Optional<Booking> findById(Long id);
 
-    List<Booking> findByItem_OwnerId(Long ownerId, Sort sort);
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Window<Booking> findByBookerId(Long bookerId, ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime end, Sort sort);
+    Window<BookingView> findByItem_OwnerId(Long ownerId, ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime start,
-                                                              LocalDateTime end, Sort sort);
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Window<Booking> findByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime end, ScrollPosition position,
+                                                 Limit limit, Sort sort);
 
-    List<Booking> findByBookerIdAndStatus(Long bookerId, Status status, Sort sort);
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Window<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime start,
+                                                                LocalDateTime end, ScrollPosition position,
+                                                                Limit limit, Sort sort);
 
-    List<Booking> findByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime start, Sort sort);
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Window<Booking> findByBookerIdAndStatus(Long bookerId, Status status, ScrollPosition position,
+                                            Limit limit, Sort sort);
 
-    List<Booking> findByItem_OwnerIdAndStartIsBeforeAndEndIsAfter(Long ownerId, LocalDateTime start,
-                                                                  LocalDateTime end, Sort sort);
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Window<Booking> findByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime start, ScrollPosition position,
+                                                  Limit limit, Sort sort);
 
-    List<Booking> findByItem_OwnerIdAndEndIsBefore(Long bookerId, LocalDateTime end, Sort sort);
+    Window<BookingView> findByItem_OwnerIdAndStartIsBeforeAndEndIsAfter(Long ownerId, LocalDateTime start,
+                                                                        LocalDateTime end, ScrollPosition position,
+                                                                        Limit limit, Sort sort);
 
-    List<Booking> findByItem_OwnerIdAndStartIsAfter(Long bookerId, LocalDateTime start, Sort sort);
+    Window<BookingView> findByItem_OwnerIdAndEndIsBefore(Long ownerId, LocalDateTime end, ScrollPosition position,
+                                                         Limit limit, Sort sort);
 
-    List<Booking> findByItem_OwnerIdAndStatus(Long bookerId, Status status, Sort sort);
+    Window<BookingView> findByItem_OwnerIdAndStartIsAfter(Long ownerId, LocalDateTime start,
+                                                          ScrollPosition position, Limit limit, Sort sort);
+
+    Window<BookingView> findByItem_OwnerIdAndStatus(Long ownerId, Status status, ScrollPosition position,
+                                                    Limit limit, Sort sort);
+
+    @Query("SELECT count(b) AS allCount, " +
+            "count(b) FILTER (WHERE b.start < local datetime AND b.end > local datetime) AS currentCount, " +
+            "count(b) FILTER (WHERE b.end < local datetime) AS pastCount, " +
+            "count(b) FILTER (WHERE b.start > local datetime) AS futureCount, " +
+            "count(b) FILTER (WHERE b.status = ru.practicum.shareit.booking.Status.WAITING) AS waitingCount, " +
+            "count(b) FILTER (WHERE b.status = ru.practicum.shareit.booking.Status.REJECTED) AS rejectedCount " +
+            "FROM Booking b WHERE b.booker.id = :bookerId")
+    BookingStateCounts countStatesByBookerId(@Param("bookerId") Long bookerId);
+
+    @Query("SELECT count(b) AS allCount, " +
+            "count(b) FILTER (WHERE b.start < local datetime AND b.end > local datetime) AS currentCount, " +
+            "count(b) FILTER (WHERE b.end < local datetime) AS pastCount, " +
+            "count(b) FILTER (WHERE b.start > local datetime) AS futureCount, " +
+            "count(b) FILTER (WHERE b.status = ru.practicum.shareit.booking.Status.WAITING) AS waitingCount, " +
+            "count(b) FILTER (WHERE b.status = ru.practicum.shareit.booking.Status.REJECTED) AS rejectedCount " +
+            "FROM Booking b WHERE b.item.owner.id = :ownerId")
+    BookingStateCounts countStatesByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query(value = "SELECT t.id AS id, t.item_id AS itemId, t.booker_id AS bookerId, t.start_date AS start, " +
+            "t.end_date AS \"end\", t.is_last AS last FROM (" +
+            "SELECT b.id, b.item_id, b.booker_id, b.start_date, b.end_date, " +
+            "CASE WHEN b.start_date <= :now THEN TRUE ELSE FALSE END AS is_last, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id, CASE WHEN b.start_date <= :now THEN 0 ELSE 1 END " +
+            "ORDER BY CASE WHEN b.start_date <= :now THEN b.start_date END DESC, b.start_date) AS rn " +
+            "FROM bookings b JOIN items i ON i.id = b.item_id " +
+            "WHERE i.owner_id = :ownerId AND b.status = 'APPROVED') t " +
+            "WHERE t.rn = 1",
+            nativeQuery = true)
+    List<ItemBookingView> findLastAndNextApprovedByOwnerId(@Param("ownerId") Long ownerId,
+                                                           @Param("now") LocalDateTime now);
 
     Booking findFirstByItem_IdAndBooker_IdAndEndIsBeforeAndStatus(Long itemId, Long userId,
                                                                   LocalDateTime end, Status status);
+
+    Optional<BookingView> findViewById(Long id);
+
+    List<BookingView> findByIdIn(Collection<Long> ids);
+
+    List<BookingPeriod> findByItem_IdAndStatusInAndEndIsAfter(Long itemId, List<Status> statuses, LocalDateTime end);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+            "SELECT :start, :end, :itemId, :bookerId, 'WAITING' " +
+            "WHERE NOT EXISTS (SELECT 1 FROM bookings b WHERE b.item_id = :itemId " +
+            "AND b.status IN ('WAITING', 'APPROVED') AND b.start_date < :end AND b.end_date > :start)",
+            nativeQuery = true)
+    int insertIfFree(@Param("itemId") Long itemId, @Param("bookerId") Long bookerId,
+                     @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.item.id = :itemId AND b.booker.id = :bookerId " +
+            "AND b.start = :start AND b.end = :end AND b.status = ru.practicum.shareit.booking.Status.WAITING")
+    Long findWaitingId(@Param("itemId") Long itemId, @Param("bookerId") Long bookerId,
+                       @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id FROM Booking b WHERE b.id IN :ids AND b.status = ru.practicum.shareit.booking.Status.WAITING")
+    List<Long> findWaitingIdsForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status WHERE b.id IN :ids " +
+            "AND b.status = ru.practicum.shareit.booking.Status.WAITING " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId)")
+    int updateStatusIfWaiting(@Param("ids") Collection<Long> ids, @Param("ownerId") Long ownerId,
+                              @Param("status") Status status);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status WHERE b.id = :id " +
+            "AND b.status = ru.practicum.shareit.booking.Status.WAITING " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId)")
+    int updateStatusIfWaiting(@Param("id") Long id, @Param("ownerId") Long ownerId, @Param("status") Status status);
 }
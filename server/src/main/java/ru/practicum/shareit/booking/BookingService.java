@@ -1,19 +1,34 @@
 package ru.practicum.shareit.booking;
 
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public interface BookingService {
     BookingInputDto createBooking(Long bookerId, BookingDto bookingDto);
 
     BookingInputDto updateBooking(Long userId, Long bookingId, Boolean approved);
 
+    List<BookingApprovalResultDto> approveBookings(Long userId, BookingApprovalDto bookingApprovalDto);
+
     BookingInputDto getBookingById(Long userId, Long bookingId);
 
-    List<BookingInputDto> getBookings(Long userId, String state);
+    List<BookingInputDto> getBookings(Long userId, String state, Integer from, Integer size,
+                                      LocalDateTime afterStart, Long afterId);
+
+    List<BookingInputDto> getBookingsOwner(Long userId, String state, Integer from, Integer size,
+                                           LocalDateTime afterStart, Long afterId);
+
+    SseEmitter streamBookingEvents(Long userId);
+
+    Map<State, Long> getBookingCounts(Long userId);
 
-    List<BookingInputDto> getBookingsOwner(Long userId, String state);
+    Map<State, Long> getBookingCountsOwner(Long userId);
 }
@@ -3,65 +3,156 @@ package ru.practicum.shareit.booking;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Pagination;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserCache;
 import ru.practicum.shareit.user.UserMapper;
-import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
 @AllArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final int MAX_BATCH_SIZE = 100;
+
     BookingRepository bookingRepository;
-    UserRepository userRepository;
+    UserCache userCache;
     ItemRepository itemRepository;
+    BookingIntervalIndex bookingIntervalIndex;
+    BookingSubscriptionRegistry bookingSubscriptionRegistry;
 
     @Override
+    @Transactional
     public BookingInputDto createBooking(Long bookerId, BookingDto bookingDto) {
         Item item = itemRepository.findById(bookingDto.getItemId()).orElseThrow(() ->
         new NotFoundException("Предмет с id = " + bookingDto.getItemId() + " не найден!"));
 
-        User user = userRepository.findById(bookerId).orElseThrow(() ->
+        User user = userCache.findById(bookerId).orElseThrow(() ->
                 new NotFoundException("Пользователь с id = " + bookerId + " не был найден!"));
 
         if (!item.getAvailable()) {
             throw new ValidationException("Товар недоступен");
         }
+        if (bookingDto.getStart() == null || bookingDto.getEnd() == null
+                || !bookingDto.getStart().isBefore(bookingDto.getEnd())) {
+            throw new ValidationException("Некорректный период бронирования!");
+        }
 
+        bookingDto.setStart(bookingDto.getStart().truncatedTo(ChronoUnit.MICROS));
+        bookingDto.setEnd(bookingDto.getEnd().truncatedTo(ChronoUnit.MICROS));
         bookingDto.setStatus(Status.WAITING.name());
-        Booking bookingApproved = BookingMapper.toBooking(bookingDto, item, user);
-        Booking newBooking = bookingRepository.save(bookingApproved);
+        Long bookingId;
+        try {
+            bookingId = bookingIntervalIndex.withItemLock(item.getId(), () -> insertBooking(item.getId(),
+                    bookerId, bookingDto.getStart(), bookingDto.getEnd()));
+        } catch (DataIntegrityViolationException e) {
+            userCache.invalidate(bookerId);
+            throw new NotFoundException("Пользователь с id = " + bookerId + " не был найден!");
+        }
+
+        Booking newBooking = BookingMapper.toBooking(bookingDto, item, user);
+        newBooking.setId(bookingId);
+        afterCommit(() -> bookingSubscriptionRegistry.publish(BookingMapper.toBookingEventDto(newBooking)));
         return BookingMapper.toBookingInputDto(newBooking, UserMapper.toUserDto(user), ItemMapper.toItemDto(item));
     }
 
     @Override
     public BookingInputDto updateBooking(Long userId, Long bookingId, Boolean approved) {
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        int updated = bookingRepository.updateStatusIfWaiting(bookingId, userId, status);
+        BookingView booking = bookingRepository.findViewById(bookingId).orElseThrow(() ->
                 new NotFoundException("Бронирование с таким id = " + bookingId + " не найдено!"));
 
-        Long itemId = booking.getItem().getOwner().getId();
-        if (!itemId.equals(userId)) {
-            throw new ValidationException("Не верный id владельца вещи!");
+        if (updated == 0) {
+            if (!booking.getItemOwnerId().equals(userId)) {
+                throw new ValidationException("Не верный id владельца вещи!");
+            }
+            throw new ValidationException("Бронирование уже рассмотрено!");
         }
-        if (approved) {
-            booking.setStatus(Status.APPROVED);
-        } else {
-            booking.setStatus(Status.REJECTED);
+        updateIndex(booking.getItemId(), booking.getId(), booking.getStart(), booking.getEnd(), approved);
+        bookingSubscriptionRegistry.publish(BookingMapper.toBookingEventDto(booking));
+        return BookingMapper.toBookingInputDto(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingApprovalResultDto> approveBookings(Long userId, BookingApprovalDto bookingApprovalDto) {
+        if (bookingApprovalDto.getBookingIds() == null || bookingApprovalDto.getBookingIds().isEmpty()
+                || bookingApprovalDto.getApproved() == null) {
+            throw new ValidationException("Некорректный запрос на подтверждение бронирований!");
+        }
+        if (bookingApprovalDto.getBookingIds().size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Количество id должно быть от 1 до " + MAX_BATCH_SIZE);
+        }
+
+        boolean approved = bookingApprovalDto.getApproved();
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        Set<Long> bookingIds = new LinkedHashSet<>(bookingApprovalDto.getBookingIds());
+        Set<Long> waitingIds = new HashSet<>(bookingRepository.findWaitingIdsForUpdate(bookingIds));
+        bookingRepository.updateStatusIfWaiting(bookingIds, userId, status);
+        Map<Long, BookingView> bookings = bookingRepository.findByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(BookingView::getId, Function.identity()));
+
+        List<BookingApprovalResultDto> results = new ArrayList<>();
+        List<BookingView> updatedBookings = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            BookingView booking = bookings.get(bookingId);
+            ApprovalOutcome outcome;
+            if (booking == null) {
+                outcome = ApprovalOutcome.NOT_FOUND;
+            } else if (!booking.getItemOwnerId().equals(userId)) {
+                outcome = ApprovalOutcome.NOT_OWNER;
+            } else if (!waitingIds.contains(bookingId)) {
+                outcome = ApprovalOutcome.NOT_WAITING;
+            } else {
+                outcome = ApprovalOutcome.UPDATED;
+                updatedBookings.add(booking);
+            }
+            results.add(BookingApprovalResultDto.builder()
+                    .bookingId(bookingId)
+                    .outcome(outcome)
+                    .status(booking == null || outcome == ApprovalOutcome.NOT_OWNER
+                            ? null : booking.getStatus().name())
+                    .build());
         }
-        bookingRepository.save(booking);
-        return BookingMapper.toBookingInputDto(booking, UserMapper.toUserDto(booking.getBooker()),
-                ItemMapper.toItemDto(booking.getItem()));
+        afterCommit(() -> updatedBookings.forEach(booking -> {
+            updateIndex(booking.getItemId(), booking.getId(), booking.getStart(), booking.getEnd(), approved);
+            bookingSubscriptionRegistry.publish(BookingMapper.toBookingEventDto(booking));
+        }));
+        return results;
     }
 
     @Override
@@ -81,61 +172,171 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingInputDto> getBookings(Long userId, String state) {
-        State bookingState;
-        try {
-            bookingState = State.valueOf(state);
-        } catch (IllegalArgumentException e) {
-            throw new ValidationException("Неизвестное состояние: " + state);
-        }
+    public List<BookingInputDto> getBookings(Long userId, String state, Integer from, Integer size,
+                                             LocalDateTime afterStart, Long afterId) {
+        State bookingState = toState(state);
+        ScrollPosition position = toScrollPosition(from, afterStart, afterId);
+        Limit limit = Pagination.limit(size);
+        LocalDateTime now = LocalDateTime.now();
 
-        List<Booking> bookings;
-        Sort sortByStartDesc = Sort.by(Sort.Direction.DESC, "start");
-
-        bookings = switch (bookingState) {
-            case ALL -> bookingRepository.findByBookerId(userId, sortByStartDesc);
-            case CURRENT ->
-                    bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(userId, LocalDateTime.now(),
-                            LocalDateTime.now(), sortByStartDesc);
-            case PAST ->
-                    bookingRepository.findByBookerIdAndEndIsBefore(userId, LocalDateTime.now(), sortByStartDesc);
-            case FUTURE -> bookingRepository.findByBookerIdAndStartIsAfter(userId, LocalDateTime.now(),
-                    sortByStartDesc);
-            case WAITING -> bookingRepository.findByBookerIdAndStatus(userId, Status.WAITING, sortByStartDesc);
-            case REJECTED -> bookingRepository.findByBookerIdAndStatus(userId, Status.REJECTED, sortByStartDesc);
+        Window<Booking> bookings = switch (bookingState) {
+            case ALL -> bookingRepository.findByBookerId(userId, position, limit, SORT_BY_START_DESC);
+            case CURRENT -> bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(userId, now, now,
+                    position, limit, SORT_BY_START_DESC);
+            case PAST -> bookingRepository.findByBookerIdAndEndIsBefore(userId, now, position, limit,
+                    SORT_BY_START_DESC);
+            case FUTURE -> bookingRepository.findByBookerIdAndStartIsAfter(userId, now, position, limit,
+                    SORT_BY_START_DESC);
+            case WAITING -> bookingRepository.findByBookerIdAndStatus(userId, Status.WAITING, position, limit,
+                    SORT_BY_START_DESC);
+            case REJECTED -> bookingRepository.findByBookerIdAndStatus(userId, Status.REJECTED, position, limit,
+                    SORT_BY_START_DESC);
         };
 
-        return BookingMapper.mapToBookingInputDtoList(bookings);
+        return BookingMapper.mapToBookingInputDtoList(bookings.getContent());
     }
 
     @Override
-    public List<BookingInputDto> getBookingsOwner(Long userId, String state) {
-        List<Item> items = itemRepository.findItemsByOwnerId(userId);
-        if (items == null || items.isEmpty()) {
+    public List<BookingInputDto> getBookingsOwner(Long userId, String state, Integer from, Integer size,
+                                                  LocalDateTime afterStart, Long afterId) {
+        if (!itemRepository.existsByOwnerId(userId)) {
             throw new NotFoundException("Вещей нет!");
         }
 
-        State bookingState;
+        State bookingState = toState(state);
+        ScrollPosition position = toScrollPosition(from, afterStart, afterId);
+        Limit limit = Pagination.limit(size);
+        LocalDateTime now = LocalDateTime.now();
+
+        Window<BookingView> bookings = switch (bookingState) {
+            case ALL -> bookingRepository.findByItem_OwnerId(userId, position, limit, SORT_BY_START_DESC);
+            case CURRENT -> bookingRepository.findByItem_OwnerIdAndStartIsBeforeAndEndIsAfter(userId, now, now,
+                    position, limit, SORT_BY_START_DESC);
+            case PAST -> bookingRepository.findByItem_OwnerIdAndEndIsBefore(userId, now, position, limit,
+                    SORT_BY_START_DESC);
+            case FUTURE -> bookingRepository.findByItem_OwnerIdAndStartIsAfter(userId, now, position, limit,
+                    SORT_BY_START_DESC);
+            case WAITING -> bookingRepository.findByItem_OwnerIdAndStatus(userId, Status.WAITING, position, limit,
+                    SORT_BY_START_DESC);
+            case REJECTED -> bookingRepository.findByItem_OwnerIdAndStatus(userId, Status.REJECTED, position, limit,
+                    SORT_BY_START_DESC);
+        };
+        return BookingMapper.mapViewsToBookingInputDtoList(bookings.getContent());
+    }
+
+    @Override
+    public SseEmitter streamBookingEvents(Long userId) {
+        if (userCache.findById(userId).isEmpty()) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не был найден!");
+        }
+        return bookingSubscriptionRegistry.subscribe(userId);
+    }
+
+    @Override
+    public Map<State, Long> getBookingCounts(Long userId) {
+        return toStateCounts(bookingRepository.countStatesByBookerId(userId));
+    }
+
+    @Override
+    public Map<State, Long> getBookingCountsOwner(Long userId) {
+        return toStateCounts(bookingRepository.countStatesByOwnerId(userId));
+    }
+
+    /**
+     * The striped lock only orders bookings made through this instance. Locking the item row serializes the
+     * check-and-insert across instances: a concurrent insert elsewhere commits before our NOT EXISTS runs.
+     */
+    private Long insertBooking(Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end) {
+        if (bookingIntervalIndex.overlaps(itemId, start, end)) {
+            throw new ValidationException("Вещь уже забронирована на это время!");
+        }
+        if (itemRepository.lockById(itemId) == null) {
+            throw new NotFoundException("Предмет с id = " + itemId + " не найден!");
+        }
+        if (bookingRepository.insertIfFree(itemId, bookerId, start, end) == 0) {
+            bookingIntervalIndex.invalidate(itemId);
+            throw new ValidationException("Вещь уже забронирована на это время!");
+        }
+
+        Long bookingId = bookingRepository.findWaitingId(itemId, bookerId, start, end);
+        bookingIntervalIndex.add(itemId, bookingId, start, end);
+        afterRollback(() -> bookingIntervalIndex.withItemLock(itemId, () -> {
+            bookingIntervalIndex.invalidate(itemId);
+            return null;
+        }));
+        return bookingId;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private void updateIndex(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end,
+                             boolean approved) {
+        bookingIntervalIndex.withItemLock(itemId, () -> {
+            if (approved) {
+                bookingIntervalIndex.add(itemId, bookingId, start, end);
+            } else {
+                bookingIntervalIndex.remove(itemId, bookingId, start);
+            }
+            return null;
+        });
+    }
+
+    private Map<State, Long> toStateCounts(BookingStateCounts counts) {
+        Map<State, Long> result = new EnumMap<>(State.class);
+        for (State state : State.values()) {
+            Long count = switch (state) {
+                case ALL -> counts.getAllCount();
+                case CURRENT -> counts.getCurrentCount();
+                case PAST -> counts.getPastCount();
+                case FUTURE -> counts.getFutureCount();
+                case WAITING -> counts.getWaitingCount();
+                case REJECTED -> counts.getRejectedCount();
+            };
+            result.put(state, count == null ? 0L : count);
+        }
+        return result;
+    }
+
+    private State toState(String state) {
         try {
-            bookingState = State.valueOf(state);
+            return State.valueOf(state);
         } catch (IllegalArgumentException e) {
             throw new ValidationException("Неизвестное состояние: " + state);
         }
+    }
 
-        List<Booking> bookings;
-        Sort sortByStartDesc = Sort.by(Sort.Direction.DESC, "start");
-
-        bookings = switch (bookingState) {
-            case ALL -> bookingRepository.findByItem_OwnerId(userId, sortByStartDesc);
-            case CURRENT -> bookingRepository.findByItem_OwnerIdAndStartIsBeforeAndEndIsAfter(userId,
-                    LocalDateTime.now(), LocalDateTime.now(), sortByStartDesc);
-            case PAST -> bookingRepository.findByItem_OwnerIdAndEndIsBefore(userId, LocalDateTime.now(),
-                    sortByStartDesc);
-            case FUTURE -> bookingRepository.findByItem_OwnerIdAndStartIsAfter(userId, LocalDateTime.now(),
-                    sortByStartDesc);
-            case WAITING -> bookingRepository.findByItem_OwnerIdAndStatus(userId, Status.WAITING, sortByStartDesc);
-            case REJECTED -> bookingRepository.findByItem_OwnerIdAndStatus(userId, Status.REJECTED, sortByStartDesc);
-        };
-        return BookingMapper.mapToBookingInputDtoList(bookings);
+    private ScrollPosition toScrollPosition(Integer from, LocalDateTime afterStart, Long afterId) {
+        if (afterStart != null && afterId != null) {
+            return ScrollPosition.forward(Map.of("start", afterStart, "id", afterId));
+        }
+        if (afterStart != null || afterId != null) {
+            throw new ValidationException("Курсор должен содержать afterStart и afterId!");
+        }
+        return Pagination.offset(from);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open booking event streams per user. Each connection buffers at most {@link #BUFFER_CAPACITY} events and
+ * drops the oldest when full; a virtual thread per busy connection drains the buffer, so a slow client only
+ * delays and loses its own events. Idle connections get a comment every {@link #HEARTBEAT_INTERVAL_SECONDS}
+ * seconds, which keeps proxies from closing them and drops subscriptions whose client has gone away.
+ */
+@Component
+public class BookingSubscriptionRegistry {
+    private static final long STREAM_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final long HEARTBEAT_INTERVAL_SECONDS = 15;
+    static final int BUFFER_CAPACITY = 64;
+
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("booking-heartbeat").daemon().factory());
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    public BookingSubscriptionRegistry() {
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, HEARTBEAT_INTERVAL_SECONDS, HEARTBEAT_INTERVAL_SECONDS,
+                TimeUnit.SECONDS);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        return subscribe(userId, new SseEmitter(STREAM_TIMEOUT_MILLIS));
+    }
+
+    SseEmitter subscribe(Long userId, SseEmitter emitter) {
+        Subscription subscription = new Subscription(emitter);
+        subscriptions.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        emitter.onCompletion(() -> unsubscribe(userId, subscription));
+        emitter.onTimeout(() -> unsubscribe(userId, subscription));
+        emitter.onError(e -> unsubscribe(userId, subscription));
+        return emitter;
+    }
+
+    public void publish(BookingEventDto event) {
+        for (Long userId : new LinkedHashSet<>(List.of(event.getBookerId(), event.getOwnerId()))) {
+            for (Subscription subscription : subscriptions.getOrDefault(userId, Set.of())) {
+                if (subscription.offer(event)) {
+                    senders.execute(() -> flush(userId, subscription));
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    void heartbeat() {
+        subscriptions.forEach((userId, userSubscriptions) -> {
+            for (Subscription subscription : userSubscriptions) {
+                if (subscription.requestHeartbeat()) {
+                    senders.execute(() -> flush(userId, subscription));
+                }
+            }
+        });
+    }
+
+    int subscriptionCount(Long userId) {
+        return subscriptions.getOrDefault(userId, Set.of()).size();
+    }
+
+    private void flush(Long userId, Subscription subscription) {
+        SseEmitter.SseEventBuilder message;
+        while ((message = subscription.next()) != null) {
+            try {
+                subscription.emitter.send(message);
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(userId, subscription);
+                return;
+            }
+        }
+    }
+
+    private void unsubscribe(Long userId, Subscription subscription) {
+        subscriptions.computeIfPresent(userId, (id, userSubscriptions) -> {
+            userSubscriptions.remove(subscription);
+            return userSubscriptions.isEmpty() ? null : userSubscriptions;
+        });
+    }
+
+    private static final class Subscription {
+        final SseEmitter emitter;
+        final Deque<BookingEventDto> buffer = new ArrayDeque<>();
+        boolean flushing;
+        boolean heartbeatDue;
+
+        Subscription(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized boolean offer(BookingEventDto event) {
+            if (buffer.size() == BUFFER_CAPACITY) {
+                buffer.pollFirst();
+            }
+            buffer.addLast(event);
+            if (flushing) {
+                return false;
+            }
+            flushing = true;
+            return true;
+        }
+
+        synchronized boolean requestHeartbeat() {
+            heartbeatDue = true;
+            if (flushing) {
+                return false;
+            }
+            flushing = true;
+            return true;
+        }
+
+        synchronized SseEmitter.SseEventBuilder next() {
+            BookingEventDto event = buffer.pollFirst();
+            if (event != null) {
+                heartbeatDue = false;
+                return SseEmitter.event()
+                        .name("booking")
+                        .data(event);
+            }
+            if (heartbeatDue) {
+                heartbeatDue = false;
+                return SseEmitter.event().comment("heartbeat");
+            }
+            flushing = false;
+            return null;
+        }
+    }
+}
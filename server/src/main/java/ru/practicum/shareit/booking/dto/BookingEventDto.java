@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingEventDto {
+    Long bookingId;
+    Long itemId;
+    Long bookerId;
+    Long ownerId;
+    String status;
+    LocalDateTime start;
+    LocalDateTime end;
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.exceptions;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+        log.error(message);
+    }
+}
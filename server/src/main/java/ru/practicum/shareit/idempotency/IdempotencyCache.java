@@ -0,0 +1,170 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Replays the stored response of a request repeated with the same Idempotency-Key and the same body; a key
+ * reused with a different body is rejected with {@link ConflictException}.
+ * Recent keys live in a bounded LRU map, older ones in the idempotency_keys table until the TTL runs out.
+ */
+@Component
+public class IdempotencyCache {
+    private static final int STRIPES = 64;
+    private static final int MAX_ENTRIES = 10_000;
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int PURGE_EVERY = 1_000;
+    private static final Duration TTL = Duration.ofHours(24);
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final Lock[] locks = new Lock[STRIPES];
+    private final AtomicLong storedCount = new AtomicLong();
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public IdempotencyCache(IdempotencyKeyRepository idempotencyKeyRepository, ObjectMapper objectMapper) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T execute(Long userId, String operation, String key, Object request, Class<T> type,
+                         Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException("Некорректный Idempotency-Key!");
+        }
+
+        String cacheKey = userId + ":" + operation + ":" + key;
+        String requestHash = hash(toJson(request));
+        Lock lock = locks[Math.floorMod(cacheKey.hashCode(), STRIPES)];
+        lock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            T cached = lookup(cacheKey, userId, operation, key, requestHash, type, now);
+            if (cached != null) {
+                return cached;
+            }
+
+            T response = action.get();
+            store(cacheKey, userId, operation, key, requestHash, response, now);
+            return response;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <T> T lookup(String cacheKey, Long userId, String operation, String key, String requestHash,
+                         Class<T> type, LocalDateTime now) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(cacheKey);
+        }
+        if (entry != null && entry.expires().isAfter(now)) {
+            checkSameRequest(entry.requestHash(), requestHash);
+            return type.cast(entry.response());
+        }
+
+        Optional<IdempotencyKey> stored = idempotencyKeyRepository.findByUserIdAndOperationAndKey(userId,
+                operation, key);
+        if (stored.isEmpty()) {
+            return null;
+        }
+        if (!stored.get().getCreated().plus(TTL).isAfter(now)) {
+            idempotencyKeyRepository.delete(stored.get());
+            return null;
+        }
+
+        checkSameRequest(stored.get().getRequestHash(), requestHash);
+        T response = fromJson(stored.get().getResponse(), type);
+        remember(cacheKey, requestHash, response, stored.get().getCreated().plus(TTL));
+        return response;
+    }
+
+    private void store(String cacheKey, Long userId, String operation, String key, String requestHash,
+                       Object response, LocalDateTime now) {
+        try {
+            idempotencyKeyRepository.save(IdempotencyKey.builder()
+                    .userId(userId)
+                    .operation(operation)
+                    .key(key)
+                    .requestHash(requestHash)
+                    .response(toJson(response))
+                    .created(now)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            return;
+        }
+        remember(cacheKey, requestHash, response, now.plus(TTL));
+        if (storedCount.incrementAndGet() % PURGE_EVERY == 0) {
+            idempotencyKeyRepository.deleteByCreatedBefore(now.minus(TTL));
+        }
+    }
+
+    private void remember(String cacheKey, String requestHash, Object response, LocalDateTime expires) {
+        synchronized (entries) {
+            entries.put(cacheKey, new Entry(requestHash, response, expires));
+        }
+    }
+
+    private static void checkSameRequest(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new ConflictException("Idempotency-Key уже использован с другим телом запроса!");
+        }
+    }
+
+    private static String hash(String request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(request.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T fromJson(String response, Class<T> type) {
+        try {
+            return objectMapper.readValue(response, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(String requestHash, Object response, LocalDateTime expires) {
+    }
+}
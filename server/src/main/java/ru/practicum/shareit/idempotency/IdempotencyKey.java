@@ -0,0 +1,29 @@
+package ru.practicum.shareit.idempotency;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Builder
+@Table(name = "idempotency_keys")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class IdempotencyKey {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+    @Column(name = "user_id")
+    Long userId;
+    String operation;
+    @Column(name = "idempotency_key")
+    String key;
+    @Column(name = "request_hash")
+    String requestHash;
+    String response;
+    LocalDateTime created;
+}
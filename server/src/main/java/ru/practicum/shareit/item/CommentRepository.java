@@ -1,9 +1,36 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentCountView;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemId(Long itemId);
+    @EntityGraph(attributePaths = {"author"})
+    Window<Comment> findByItemId(Long itemId, ScrollPosition position, Limit limit, Sort sort);
+
+    long countByItemId(Long itemId);
+
+    @EntityGraph(attributePaths = {"author"})
+    List<Comment> findByItemIdIn(Collection<Long> itemIds);
+
+    @Query(value = "SELECT id FROM (SELECT c.id, ROW_NUMBER() OVER (PARTITION BY c.item_id " +
+            "ORDER BY c.created DESC, c.id DESC) AS position FROM comments c WHERE c.item_id IN :itemIds) latest " +
+            "WHERE latest.position <= :limit", nativeQuery = true)
+    List<Long> findLatestIdsByItemIdIn(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
+
+    @EntityGraph(attributePaths = {"author"})
+    List<Comment> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT c.item.id AS itemId, COUNT(c) AS count FROM Comment c WHERE c.item.id IN :itemIds " +
+            "GROUP BY c.item.id")
+    List<CommentCountView> countByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
 }
@@ -4,14 +4,23 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.constant.UserConstant;
+import ru.practicum.shareit.idempotency.IdempotencyCache;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemCommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentsDateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchQuery;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @AllArgsConstructor
@@ -20,12 +29,16 @@ import java.util.List;
 @RequestMapping("/items")
 public class ItemController {
     ItemService itemService;
+    IdempotencyCache idempotencyCache;
 
     @ResponseBody
     @PostMapping
-    public ItemDto addItem(@RequestHeader(UserConstant.X_SHARER_USER_ID) Long userId, @RequestBody ItemDto itemDto) {
+    public ItemDto addItem(@RequestHeader(UserConstant.X_SHARER_USER_ID) Long userId,
+                           @RequestHeader(value = UserConstant.IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                           @RequestBody ItemDto itemDto) {
         log.info("Выполнение addItem");
-        return itemService.addItem(userId, itemDto);
+        return idempotencyCache.execute(userId, "POST /items", idempotencyKey, itemDto, ItemDto.class,
+                () -> itemService.addItem(userId, itemDto));
     }
 
     @ResponseBody
@@ -36,22 +49,73 @@ public class ItemController {
         return itemService.updateItem(userId, itemId, itemUpdateDto);
     }
 
+    @GetMapping("/batch")
+    public Map<Long, ItemCommentDto> getItemsByIds(@RequestParam List<Long> ids) {
+        log.info("Выполнение getItemsByIds");
+        return itemService.getItemsByIds(ids);
+    }
+
     @GetMapping("/{item-id}")
     public ItemCommentDto getItemById(@PathVariable("item-id") Long itemId) {
         log.info("Выполнение getItemById");
         return itemService.getItemById(itemId);
     }
 
+    @GetMapping("/{item-id}/comments")
+    public List<CommentDto> getComments(@PathVariable("item-id") Long itemId,
+                                        @RequestParam(name = "after", required = false) Long afterId,
+                                        @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("Выполнение getComments");
+        return itemService.getComments(itemId, afterId, size);
+    }
+
     @GetMapping
-    public List<ItemDto> getItemsByOwnerId(@RequestHeader(UserConstant.X_SHARER_USER_ID) Long userId) {
+    public List<ItemCommentsDateDto> getItemsByOwnerId(@RequestHeader(UserConstant.X_SHARER_USER_ID) Long userId) {
         log.info("Выполнение getItemsByOwnerId");
         return itemService.getItemsByOwnerId(userId);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> getItemsBySearchQuery(@RequestParam String text) {
+    public List<ItemDto> getItemsBySearchQuery(@RequestParam String text,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime start,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime end,
+                                               @RequestParam(defaultValue = "false") boolean fuzzy,
+                                               @RequestParam(required = false) Boolean available,
+                                               @RequestParam(required = false) Long requestId,
+                                               @RequestParam(required = false) List<Long> ownerIds,
+                                               @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                               @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                               @RequestParam(name = "afterId", required = false) Long afterId) {
         log.info("Выполнение getItemsBySearchQuery");
-        return itemService.searchItems(text);
+        ItemSearchFilter filter = null;
+        if (available != null || requestId != null || ownerIds != null) {
+            filter = ItemSearchFilter.builder()
+                    .available(available)
+                    .requestId(requestId)
+                    .ownerIds(ownerIds)
+                    .build();
+        }
+        return itemService.searchItems(ItemSearchQuery.builder()
+                .text(text)
+                .start(start)
+                .end(end)
+                .fuzzy(fuzzy)
+                .filter(filter)
+                .from(from)
+                .size(size)
+                .afterId(afterId)
+                .build());
+    }
+
+    @GetMapping("/suggest")
+    public List<ItemSuggestionDto> suggestItems(@RequestParam String prefix,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        log.info("Выполнение suggestItems");
+        return itemService.suggestItems(prefix, limit);
     }
 
     @ResponseBody
@@ -61,4 +125,14 @@ public class ItemController {
         log.info("Выполнение createComment");
         return itemService.createComment(userId, itemId, commentDto);
     }
+
+    @GetMapping("/{item-id}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable("item-id") Long itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to) {
+        log.info("Выполнение getAvailability");
+        return itemService.getAvailability(itemId, from, to);
+    }
 }
@@ -1,10 +1,15 @@
 package ru.practicum.shareit.item;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemCommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentsDateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemIndexView;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
@@ -34,13 +39,43 @@ public class ItemMapper {
                 .build();
     }
 
-    public static ItemCommentDto toItemCommentDto(Item item, List<CommentDto> comments) {
+    public static ItemCommentDto toItemCommentDto(Item item, List<CommentDto> comments, long commentsCount) {
         return ItemCommentDto.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
                 .comments(List.copyOf(comments))
+                .commentsCount(commentsCount)
+                .build();
+    }
+
+    public static ItemCommentsDateDto toItemCommentsDateDto(Item item, ItemBookingView lastBooking,
+                                                            ItemBookingView nextBooking, List<CommentDto> comments) {
+        return ItemCommentsDateDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .owner(item.getOwner().getId())
+                .requestId(item.getRequestId())
+                .start(nextBooking == null ? null : nextBooking.getStart())
+                .end(lastBooking == null ? null : lastBooking.getEnd())
+                .lastBooking(toBookingShortDto(lastBooking))
+                .nextBooking(toBookingShortDto(nextBooking))
+                .comments(List.copyOf(comments))
+                .build();
+    }
+
+    private static BookingShortDto toBookingShortDto(ItemBookingView booking) {
+        if (booking == null) {
+            return null;
+        }
+        return BookingShortDto.builder()
+                .id(booking.getId())
+                .bookerId(booking.getBookerId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
                 .build();
     }
 
@@ -52,6 +87,13 @@ public class ItemMapper {
                 .build();
     }
 
+    public static ItemSuggestionDto toItemSuggestionDto(ItemIndexView item) {
+        return ItemSuggestionDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .build();
+    }
+
     public static List<ItemResponseDto> toItemResponseDtoList(List<Item> items) {
         return items.stream()
                 .map(ItemMapper::toItemResponseDto)
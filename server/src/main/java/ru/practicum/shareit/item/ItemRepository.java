@@ -1,19 +1,44 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemIndexView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemSearchRepository {
     List<Item> findItemsByOwnerId(Long ownerId);
 
-    @Query("SELECT i FROM Item i " +
-            "WHERE lower(i.name) like lower(concat('%', :text, '%')) " +
-            "or lower(i.description) like lower(concat('%', :text, '%'))")
-    List<Item> search(String text);
+    boolean existsByOwnerId(Long ownerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i.id FROM Item i WHERE i.id = :id")
+    Long lockById(@Param("id") Long id);
+
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description, i.available AS available, " +
+            "i.owner.id AS ownerId, i.requestId AS requestId FROM Item i WHERE i.id > :id ORDER BY i.id")
+    List<ItemIndexView> findByIdGreaterThanOrderById(@Param("id") Long id, Limit limit);
+
+    List<ItemIndexView> findByNameStartingWithIgnoreCaseAndAvailableTrueOrderByIdDesc(String prefix, Limit limit);
+
+    @EntityGraph(attributePaths = {"owner"})
+    List<Item> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT i.id FROM Item i " +
+            "WHERE i.id IN :ids " +
+            "and not exists (SELECT b.id FROM Booking b WHERE b.item = i " +
+            "and b.status = ru.practicum.shareit.booking.Status.APPROVED " +
+            "and b.start < :end and b.end > :start)")
+    List<Long> findFreeIdsIn(@Param("ids") Collection<Long> ids, @Param("start") LocalDateTime start,
+                             @Param("end") LocalDateTime end);
 
     List<Item> findByRequestId(Long requestId);
 
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.item.dto.ItemIndexStatusDto;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.SearchResultCache;
+
+@Slf4j
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@RestController
+@RequestMapping("/admin/items/index")
+public class ItemSearchIndexController {
+    ItemSearchIndex itemSearchIndex;
+    SearchResultCache searchResultCache;
+
+    @GetMapping
+    public ItemIndexStatusDto checkIndex() {
+        log.info("Выполнение checkIndex");
+        return itemSearchIndex.check();
+    }
+
+    @PostMapping("/rebuild")
+    public ItemIndexStatusDto rebuildIndex() {
+        log.info("Выполнение rebuildIndex");
+        ItemIndexStatusDto status = itemSearchIndex.rebuild();
+        searchResultCache.clear();
+        return status;
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemSearchRepository {
+    List<Item> search(String text, ItemSearchFilter filter, LocalDateTime start, LocalDateTime end, Long afterId,
+                      int offset, int limit);
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * On PostgreSQL matches the GIN-indexed search_vector column, with trigram-indexed substring matches as a fallback.
+ * Other databases get the plain LIKE query. Name matches rank before description-only matches, newest first;
+ * a cursor id resumes after that item's position, or among description matches when the id no longer matches.
+ */
+public class ItemSearchRepositoryImpl implements ItemSearchRepository {
+    private static final String FREE_CONDITION = "AND NOT EXISTS (SELECT 1 FROM bookings b WHERE b.item_id = i.id " +
+            "AND b.status = 'APPROVED' AND b.start_date < :end AND b.end_date > :start) ";
+
+    private static final String RANK = "CASE WHEN lower(%1$s.name) LIKE :pattern THEN 0 ELSE 1 END";
+
+    private static final String AFTER_CONDITION = "AND (" + RANK.formatted("i") + " > :afterRank " +
+            "OR " + RANK.formatted("i") + " = :afterRank AND i.id < :afterId) ";
+
+    private static final String AFTER_RANK = "SELECT " + RANK.formatted("a") + " FROM items a WHERE a.id = :afterId";
+
+    private static final String FULL_TEXT_QUERY = "SELECT i.id, i.name, i.description, i.available, i.owner_id, " +
+            "i.request_id FROM items i " +
+            "WHERE (i.search_vector @@ plainto_tsquery('simple', :text) " +
+            "OR lower(i.name) LIKE :pattern OR lower(i.description) LIKE :pattern) %s" +
+            "ORDER BY " + RANK.formatted("i") + ", i.id DESC";
+
+    private static final String LIKE_QUERY = "SELECT i.id, i.name, i.description, i.available, i.owner_id, " +
+            "i.request_id FROM items i " +
+            "WHERE (lower(i.name) LIKE :pattern OR lower(i.description) LIKE :pattern) %s" +
+            "ORDER BY " + RANK.formatted("i") + ", i.id DESC";
+
+    private final EntityManager entityManager;
+    private final boolean fullText;
+
+    public ItemSearchRepositoryImpl(EntityManager entityManager, DataSource dataSource) {
+        this.entityManager = entityManager;
+        this.fullText = isPostgres(dataSource);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> search(String text, ItemSearchFilter filter, LocalDateTime start, LocalDateTime end,
+                             Long afterId, int offset, int limit) {
+        boolean free = start != null && end != null;
+        boolean owners = filter.getOwnerIds() != null && !filter.getOwnerIds().isEmpty();
+        String pattern = "%" + escapeLike(text.toLowerCase()) + "%";
+        StringBuilder conditions = new StringBuilder();
+        if (filter.getAvailable() != null) {
+            conditions.append("AND i.available = :available ");
+        }
+        if (filter.getRequestId() != null) {
+            conditions.append("AND i.request_id = :requestId ");
+        }
+        if (owners) {
+            conditions.append("AND i.owner_id IN (:ownerIds) ");
+        }
+        if (free) {
+            conditions.append(FREE_CONDITION);
+        }
+        if (afterId != null) {
+            conditions.append(AFTER_CONDITION);
+        }
+
+        Query query = entityManager.createNativeQuery(String.format(fullText ? FULL_TEXT_QUERY : LIKE_QUERY,
+                        conditions), Item.class)
+                .setParameter("pattern", pattern)
+                .setFirstResult(offset)
+                .setMaxResults(limit);
+        if (fullText) {
+            query.setParameter("text", text);
+        }
+        if (filter.getAvailable() != null) {
+            query.setParameter("available", filter.getAvailable());
+        }
+        if (filter.getRequestId() != null) {
+            query.setParameter("requestId", filter.getRequestId());
+        }
+        if (owners) {
+            query.setParameter("ownerIds", filter.getOwnerIds());
+        }
+        if (free) {
+            query.setParameter("start", start)
+                    .setParameter("end", end);
+        }
+        if (afterId != null) {
+            List<?> afterRank = entityManager.createNativeQuery(AFTER_RANK)
+                    .setParameter("pattern", pattern)
+                    .setParameter("afterId", afterId)
+                    .getResultList();
+            query.setParameter("afterId", afterId)
+                    .setParameter("afterRank", afterRank.isEmpty() ? 1 : ((Number) afterRank.getFirst()).intValue());
+        }
+        return query.getResultList();
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+}
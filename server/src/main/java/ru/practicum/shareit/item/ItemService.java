@@ -1,11 +1,17 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemCommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentsDateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchQuery;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public interface ItemService {
     ItemDto addItem(Long ownerId, ItemDto itemDto);
@@ -14,9 +20,17 @@ public interface ItemService {
 
     ItemCommentDto getItemById(Long itemId);
 
-    List<ItemDto> getItemsByOwnerId(Long ownerId);
+    List<CommentDto> getComments(Long itemId, Long afterId, Integer size);
 
-    List<ItemDto> searchItems(String text);
+    Map<Long, ItemCommentDto> getItemsByIds(List<Long> itemIds);
+
+    List<ItemCommentsDateDto> getItemsByOwnerId(Long ownerId);
+
+    List<ItemDto> searchItems(ItemSearchQuery query);
+
+    List<ItemSuggestionDto> suggestItems(String prefix, int limit);
 
     CommentDto createComment(Long userId, Long itemId, CommentDto commentDto);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
@@ -3,38 +3,79 @@ package ru.practicum.shareit.item;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.CommentCountView;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemCommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentsDateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchQuery;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.SearchHits;
+import ru.practicum.shareit.item.search.SearchResultCache;
 import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.match.RequestMatchIndex;
+import ru.practicum.shareit.request.match.RequestMatchNotifier;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
+import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 
 @Service
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
 @AllArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int MAX_AVAILABILITY_DAYS = 366;
+    private static final int FREE_CHECK_BATCH = 500;
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int LATEST_COMMENTS = 10;
+    private static final int MAX_COMMENTS_PAGE = 100;
+    private static final Sort SORT_BY_CREATED_DESC = Sort.by(Sort.Direction.DESC, "createdDate", "id");
+
     ItemRepository itemRepository;
-    UserRepository userRepository;
+    UserCache userCache;
     BookingRepository bookingRepository;
     CommentRepository commentRepository;
     ItemRequestRepository itemRequestRepository;
+    BookingIntervalIndex bookingIntervalIndex;
+    ItemSearchIndex itemSearchIndex;
+    ItemNameSuggester itemNameSuggester;
+    SearchResultCache searchResultCache;
+    RequestMatchIndex requestMatchIndex;
+    RequestMatchNotifier requestMatchNotifier;
 
     @Override
     public ItemDto addItem(Long ownerId, ItemDto itemDto) {
@@ -46,7 +87,7 @@ public class ItemServiceImpl implements ItemService {
             throw new ValidationException("Некорректные данные!");
         }
 
-        User user = userRepository.findById(ownerId)
+        User user = userCache.findById(ownerId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id = " + ownerId + " не найден"));
 
         ItemRequest itemRequest = null;
@@ -55,19 +96,34 @@ public class ItemServiceImpl implements ItemService {
                     .orElseThrow(() -> new NotFoundException("Запрос с id = " + itemDto.getRequestId() + " не найден"));
         }
 
-        Item item = itemRepository.save(ItemMapper.toItem(itemDto, user));
+        Item item;
+        try {
+            item = itemRepository.save(ItemMapper.toItem(itemDto, user));
+        } catch (DataIntegrityViolationException e) {
+            userCache.invalidate(ownerId);
+            throw new NotFoundException("Пользователь с id = " + ownerId + " не найден");
+        }
+        itemSearchIndex.index(item);
+        itemNameSuggester.index(item);
+        searchResultCache.invalidate(item.getName(), item.getDescription());
+        requestMatchNotifier.publish(requestMatchIndex.match(item));
+        if (item.getRequestId() != null) {
+            requestMatchIndex.close(item.getRequestId());
+        }
 
         return ItemMapper.toItemDto(item);
     }
 
     @Override
     public ItemDto updateItem(Long ownerId, Long itemId, ItemUpdateDto itemUpdateDto) {
-        userRepository.findById(ownerId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        userCache.findById(ownerId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
         Item newItem = itemRepository.findById(itemId).orElseThrow(() ->
                 new NotFoundException("Вещь с id = " + itemId + " не найден"));
         if (!newItem.getOwner().getId().equals(ownerId)) {
             throw new NotFoundException("Указан другой пользователь");
         }
+        String previousName = newItem.getName();
+        String previousDescription = newItem.getDescription();
         if (itemUpdateDto.getName() != null && !itemUpdateDto.getName().isEmpty()) {
             newItem.setName(itemUpdateDto.getName());
         }
@@ -78,39 +134,189 @@ public class ItemServiceImpl implements ItemService {
             newItem.setAvailable(itemUpdateDto.getAvailable());
         }
 
-        return ItemMapper.toItemDto(itemRepository.save(newItem));
+        Item item = itemRepository.save(newItem);
+        itemSearchIndex.index(item);
+        itemNameSuggester.index(item);
+        searchResultCache.invalidate(previousName, previousDescription, item.getName(), item.getDescription());
+        return ItemMapper.toItemDto(item);
     }
 
     @Override
     public ItemCommentDto getItemById(Long itemId) {
-        List<CommentDto> commentDto = CommentMapper.toCommentDtoList(commentRepository.findByItemId(itemId));
-        return ItemMapper.toItemCommentDto(itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Вещь с id = " + itemId + " не найден")), commentDto);
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь с id = " + itemId + " не найден"));
+        List<CommentDto> comments = CommentMapper.toCommentDtoList(commentRepository.findByItemId(itemId,
+                ScrollPosition.keyset(), Limit.of(LATEST_COMMENTS), SORT_BY_CREATED_DESC).getContent());
+        long commentsCount = comments.size() < LATEST_COMMENTS ? comments.size()
+                : commentRepository.countByItemId(itemId);
+        return ItemMapper.toItemCommentDto(item, comments, commentsCount);
     }
 
     @Override
-    public List<ItemDto> getItemsByOwnerId(Long ownerId) {
-        return itemRepository.findItemsByOwnerId(ownerId).stream()
-                .map(ItemMapper::toItemDto)
-                .sorted(Comparator.comparing(ItemDto::getId))
+    public List<CommentDto> getComments(Long itemId, Long afterId, Integer size) {
+        if (size == null || size <= 0 || size > MAX_COMMENTS_PAGE) {
+            throw new ValidationException("Некорректное значение size: " + size);
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь с id = " + itemId + " не найден");
+        }
+        ScrollPosition position = ScrollPosition.keyset();
+        if (afterId != null) {
+            Comment after = commentRepository.findById(afterId)
+                    .filter(comment -> comment.getItem().getId().equals(itemId))
+                    .orElseThrow(() -> new NotFoundException("Комментарий с id = " + afterId + " не найден"));
+            position = ScrollPosition.forward(Map.of("createdDate", after.getCreatedDate(), "id", after.getId()));
+        }
+        return CommentMapper.toCommentDtoList(commentRepository.findByItemId(itemId, position, Limit.of(size),
+                SORT_BY_CREATED_DESC).getContent());
+    }
+
+    @Override
+    public Map<Long, ItemCommentDto> getItemsByIds(List<Long> itemIds) {
+        if (itemIds == null || itemIds.isEmpty() || itemIds.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Количество id должно быть от 1 до " + MAX_BATCH_SIZE);
+        }
+        Map<Long, Item> items = itemRepository.findByIdIn(itemIds).stream()
+                .collect(toMap(Item::getId, Function.identity()));
+        if (items.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        Map<Long, List<CommentDto>> comments = commentRepository.findByIdIn(
+                        commentRepository.findLatestIdsByItemIdIn(items.keySet(), LATEST_COMMENTS)).stream()
+                .sorted(Comparator.comparing(Comment::getCreatedDate).thenComparing(Comment::getId).reversed())
+                .map(CommentMapper::toCommentDto)
+                .collect(groupingBy(CommentDto::getItemId));
+        Map<Long, Long> counts = commentRepository.countByItemIdIn(items.keySet()).stream()
+                .collect(toMap(CommentCountView::getItemId, CommentCountView::getCount));
+
+        Map<Long, ItemCommentDto> result = new LinkedHashMap<>();
+        for (Long itemId : itemIds) {
+            Item item = items.get(itemId);
+            if (item != null) {
+                result.put(itemId, ItemMapper.toItemCommentDto(item, comments.getOrDefault(itemId, List.of()),
+                        counts.getOrDefault(itemId, 0L)));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<ItemCommentsDateDto> getItemsByOwnerId(Long ownerId) {
+        List<Item> items = itemRepository.findItemsByOwnerId(ownerId);
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, ItemBookingView> lastBookings = new HashMap<>();
+        Map<Long, ItemBookingView> nextBookings = new HashMap<>();
+        for (ItemBookingView booking : bookingRepository.findLastAndNextApprovedByOwnerId(ownerId,
+                LocalDateTime.now())) {
+            (booking.getLast() ? lastBookings : nextBookings).put(booking.getItemId(), booking);
+        }
+        Map<Long, List<CommentDto>> comments = commentRepository.findByItemIdIn(items.stream()
+                        .map(Item::getId)
+                        .toList()).stream()
+                .map(CommentMapper::toCommentDto)
+                .collect(groupingBy(CommentDto::getItemId));
+
+        return items.stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .map(item -> ItemMapper.toItemCommentsDateDto(item, lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()), comments.getOrDefault(item.getId(), List.of())))
                 .collect(toList());
     }
 
     @Override
-    public List<ItemDto> searchItems(String text) {
+    public List<ItemDto> searchItems(ItemSearchQuery query) {
+        String text = query.getText();
+        boolean fuzzy = query.isFuzzy();
+        LocalDateTime start = query.getStart();
+        LocalDateTime end = query.getEnd();
+        Integer from = query.getFrom();
+        Integer size = query.getSize();
+        Long afterId = query.getAfterId();
+        if (from == null || from < 0) {
+            throw new ValidationException("Некорректное значение from: " + from);
+        }
+        if (size == null || size <= 0) {
+            throw new ValidationException("Некорректное значение size: " + size);
+        }
         if (text == null || text.isEmpty()) {
             return new ArrayList<>();
         }
-        return itemRepository.search(text)
-                .stream()
-                .filter(Item::getAvailable)
+        if ((start != null || end != null) && (start == null || end == null || !start.isBefore(end))) {
+            throw new ValidationException("Некорректный период!");
+        }
+        ItemSearchFilter filter = query.getFilter() == null ? defaultSearchFilter() : query.getFilter();
+        int skip = afterId == null ? from : 0;
+        Optional<SearchHits> hits = searchResultCache.get(text, fuzzy, () -> itemSearchIndex.search(text, fuzzy));
+        if (hits.isEmpty()) {
+            return itemRepository.search(text, filter, start, end, afterId, skip, size).stream()
+                    .map(ItemMapper::toItemDto)
+                    .toList();
+        }
+
+        SearchHits filtered = itemSearchIndex.filter(hits.get(), filter);
+        List<Long> ranked = filtered.ids();
+        List<Long> candidates = ranked.subList(afterId == null ? 0 : filtered.indexAfter(afterId), ranked.size());
+        List<Long> pageIds = start == null
+                ? candidates.subList(Math.min(skip, candidates.size()), Math.min(skip + size, candidates.size()))
+                : freePage(candidates, skip, size, start, end);
+        if (pageIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Boolean available = filter.getAvailable();
+        Map<Long, Item> items = itemRepository.findByIdIn(pageIds).stream()
+                .filter(item -> available == null || available.equals(item.getAvailable()))
+                .collect(toMap(Item::getId, Function.identity()));
+        return pageIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
                 .map(ItemMapper::toItemDto)
                 .toList();
     }
 
+    @Override
+    public List<ItemSuggestionDto> suggestItems(String prefix, int limit) {
+        if (limit < 1 || limit > ItemNameSuggester.TOP_K) {
+            throw new ValidationException("Количество подсказок должно быть от 1 до " + ItemNameSuggester.TOP_K);
+        }
+        if (prefix == null || prefix.isBlank()) {
+            return new ArrayList<>();
+        }
+        return itemNameSuggester.suggest(prefix, limit)
+                .orElseGet(() -> itemRepository.findByNameStartingWithIgnoreCaseAndAvailableTrueOrderByIdDesc(
+                                prefix.strip(), Limit.of(limit)).stream()
+                        .map(ItemMapper::toItemSuggestionDto)
+                        .toList());
+    }
+
+    /**
+     * A search without facets keeps its original meaning of "items that can be booked now"; any explicit facet
+     * replaces this default, so {@code available} left unset there means both available and unavailable items.
+     */
+    private static ItemSearchFilter defaultSearchFilter() {
+        return ItemSearchFilter.builder()
+                .available(true)
+                .build();
+    }
+
+    private List<Long> freePage(List<Long> candidates, int skip, int size, LocalDateTime start,
+                                LocalDateTime end) {
+        List<Long> free = new ArrayList<>();
+        for (int i = 0; i < candidates.size() && free.size() < skip + size; i += FREE_CHECK_BATCH) {
+            List<Long> batch = candidates.subList(i, Math.min(i + FREE_CHECK_BATCH, candidates.size()));
+            Set<Long> freeIds = new HashSet<>(itemRepository.findFreeIdsIn(batch, start, end));
+            batch.stream()
+                    .filter(freeIds::contains)
+                    .forEach(free::add);
+        }
+        return free.subList(Math.min(skip, free.size()), Math.min(skip + size, free.size()));
+    }
+
     @Override
     public CommentDto createComment(Long userId, Long itemId, CommentDto commentDto) {
-        User author = userRepository.findById(userId).orElseThrow(() ->
+        User author = userCache.findById(userId).orElseThrow(() ->
                 new ValidationException("Отсутсвует автор с id = " + userId));
         Item item = itemRepository.findById(itemId).orElseThrow(() ->
                 new NotFoundException("Отсутсвует вещь с id = " + itemId));
@@ -124,4 +330,24 @@ public class ItemServiceImpl implements ItemService {
         Comment comment = commentRepository.save(CommentMapper.toComment(commentDto, author, item));
         return CommentMapper.toCommentDto(comment);
     }
-}
\ No newline at end of file
+
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new ValidationException("Некорректный период!");
+        }
+        if (to.isAfter(LocalDateTime.now().plusDays(MAX_AVAILABILITY_DAYS))) {
+            throw new ValidationException("Период не может заканчиваться позже чем через "
+                    + MAX_AVAILABILITY_DAYS + " дней!");
+        }
+        Item item = itemRepository.findById(itemId).orElseThrow(() ->
+                new NotFoundException("Вещь с id = " + itemId + " не найден"));
+
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .available(item.getAvailable())
+                .slots(bookingIntervalIndex.withItemLock(itemId, () ->
+                        bookingIntervalIndex.availability(itemId, from, to)))
+                .build();
+    }
+}
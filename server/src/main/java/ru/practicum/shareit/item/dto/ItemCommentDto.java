@@ -19,4 +19,5 @@ public class ItemCommentDto {
     User nextBooking;
     Boolean available;
     List<CommentDto> comments;
+    Long commentsCount;
 }
@@ -4,6 +4,7 @@ import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
 import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -16,7 +17,11 @@ public class ItemCommentsDateDto {
     String name;
     String description;
     Boolean available;
+    Long owner;
+    Long requestId;
     LocalDateTime start;
     LocalDateTime end;
+    BookingShortDto lastBooking;
+    BookingShortDto nextBooking;
     List<CommentDto> comments;
 }
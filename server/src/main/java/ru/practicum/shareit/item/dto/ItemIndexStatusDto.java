@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ItemIndexStatusDto {
+    Boolean ready;
+    Long indexedItems;
+    Long terms;
+    Long missingItems;
+    Long staleItems;
+    Long mismatchedItems;
+    Boolean consistent;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+public interface ItemIndexView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getOwnerId();
+
+    Long getRequestId();
+}
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Porter stemmer for English. Expects lower-case input of latin letters.
+ */
+@UtilityClass
+class EnglishStemmer {
+    private static final Map<String, String> STEP_2 = longestFirst(
+            "ational", "ate", "tional", "tion", "enci", "ence", "anci", "ance", "izer", "ize", "bli", "ble",
+            "alli", "al", "entli", "ent", "eli", "e", "ousli", "ous", "ization", "ize", "ation", "ate",
+            "ator", "ate", "alism", "al", "iveness", "ive", "fulness", "ful", "ousness", "ous", "aliti", "al",
+            "iviti", "ive", "biliti", "ble", "logi", "log");
+    private static final Map<String, String> STEP_3 = longestFirst(
+            "icate", "ic", "ative", "", "alize", "al", "iciti", "ic", "ical", "ic", "ful", "", "ness", "");
+    private static final Map<String, String> STEP_4 = longestFirst(
+            "al", "", "ance", "", "ence", "", "er", "", "ic", "", "able", "", "ible", "", "ant", "", "ement", "",
+            "ment", "", "ent", "", "ion", "", "ou", "", "ism", "", "ate", "", "iti", "", "ous", "", "ive", "",
+            "ize", "");
+
+    static String stem(String word) {
+        if (word.length() <= 2) {
+            return word;
+        }
+        StringBuilder b = new StringBuilder(word);
+        step1(b);
+        replaceSuffix(b, STEP_2, 0);
+        replaceSuffix(b, STEP_3, 0);
+        replaceSuffix(b, STEP_4, 1);
+        step5(b);
+        return b.toString();
+    }
+
+    private static void step1(StringBuilder b) {
+        if (endsWith(b, "sses") || endsWith(b, "ies")) {
+            b.setLength(b.length() - 2);
+        } else if (endsWith(b, "s") && !endsWith(b, "ss")) {
+            b.setLength(b.length() - 1);
+        }
+
+        if (endsWith(b, "eed")) {
+            if (measure(b, b.length() - 3) > 0) {
+                b.setLength(b.length() - 1);
+            }
+        } else if (removeIfVowelBefore(b, "ed") || removeIfVowelBefore(b, "ing")) {
+            if (endsWith(b, "at") || endsWith(b, "bl") || endsWith(b, "iz")) {
+                b.append('e');
+            } else if (endsWithDoubleConsonant(b, b.length()) && "lsz".indexOf(b.charAt(b.length() - 1)) < 0) {
+                b.setLength(b.length() - 1);
+            } else if (measure(b, b.length()) == 1 && endsWithCvc(b, b.length())) {
+                b.append('e');
+            }
+        }
+
+        if (endsWith(b, "y") && hasVowel(b, b.length() - 1)) {
+            b.setCharAt(b.length() - 1, 'i');
+        }
+    }
+
+    private static void step5(StringBuilder b) {
+        if (endsWith(b, "e")) {
+            int stem = b.length() - 1;
+            int m = measure(b, stem);
+            if (m > 1 || m == 1 && !endsWithCvc(b, stem)) {
+                b.setLength(stem);
+            }
+        }
+        if (endsWith(b, "ll") && measure(b, b.length()) > 1) {
+            b.setLength(b.length() - 1);
+        }
+    }
+
+    private static void replaceSuffix(StringBuilder b, Map<String, String> rules, int minMeasure) {
+        for (Map.Entry<String, String> rule : rules.entrySet()) {
+            String suffix = rule.getKey();
+            if (endsWith(b, suffix)) {
+                int stem = b.length() - suffix.length();
+                boolean ionRule = suffix.equals("ion");
+                if (ionRule && (stem == 0 || "st".indexOf(b.charAt(stem - 1)) < 0)) {
+                    continue;
+                }
+                if (measure(b, stem) > minMeasure) {
+                    b.setLength(stem);
+                    b.append(rule.getValue());
+                }
+                return;
+            }
+        }
+    }
+
+    private static boolean removeIfVowelBefore(StringBuilder b, String suffix) {
+        if (endsWith(b, suffix) && hasVowel(b, b.length() - suffix.length())) {
+            b.setLength(b.length() - suffix.length());
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean endsWith(StringBuilder b, String suffix) {
+        int start = b.length() - suffix.length();
+        return start >= 0 && b.indexOf(suffix, start) == start;
+    }
+
+    private static boolean isConsonant(CharSequence b, int i) {
+        return switch (b.charAt(i)) {
+            case 'a', 'e', 'i', 'o', 'u' -> false;
+            case 'y' -> i == 0 || !isConsonant(b, i - 1);
+            default -> true;
+        };
+    }
+
+    private static int measure(CharSequence b, int end) {
+        int count = 0;
+        int i = 0;
+        while (i < end && isConsonant(b, i)) {
+            i++;
+        }
+        while (i < end) {
+            while (i < end && !isConsonant(b, i)) {
+                i++;
+            }
+            if (i >= end) {
+                break;
+            }
+            while (i < end && isConsonant(b, i)) {
+                i++;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean hasVowel(CharSequence b, int end) {
+        for (int i = 0; i < end; i++) {
+            if (!isConsonant(b, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean endsWithDoubleConsonant(CharSequence b, int end) {
+        return end >= 2 && b.charAt(end - 1) == b.charAt(end - 2) && isConsonant(b, end - 1);
+    }
+
+    private static boolean endsWithCvc(CharSequence b, int end) {
+        return end >= 3 && isConsonant(b, end - 3) && !isConsonant(b, end - 2) && isConsonant(b, end - 1)
+                && "wxy".indexOf(b.charAt(end - 1)) < 0;
+    }
+
+    private static Map<String, String> longestFirst(String... pairs) {
+        Map<String, String> rules = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            rules.put(pairs[i], pairs[i + 1]);
+        }
+        return rules.entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<String, String> rule) -> rule.getKey().length())
+                        .reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a,
+                        LinkedHashMap::new));
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item.search;
+
+/**
+ * Count-min sketch with counters capped at 15 and halved after every sample period, so popularity decays.
+ */
+final class FrequencySketch {
+    private static final int MAX_COUNT = 15;
+    private static final long[] SEEDS = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L,
+            0xD6E8FEB86659FD93L};
+
+    private final byte[][] table = new byte[SEEDS.length][];
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+        int width = Integer.highestOneBit(Math.max(16, capacity * 4));
+        for (int row = 0; row < SEEDS.length; row++) {
+            table[row] = new byte[width];
+        }
+        mask = width - 1;
+        sampleSize = capacity * 10;
+    }
+
+    void increment(Object key) {
+        int hash = key.hashCode();
+        for (int row = 0; row < SEEDS.length; row++) {
+            int index = index(hash, row);
+            if (table[row][index] < MAX_COUNT) {
+                table[row][index]++;
+            }
+        }
+        if (++additions == sampleSize) {
+            for (byte[] counters : table) {
+                for (int i = 0; i < counters.length; i++) {
+                    counters[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+    }
+
+    int frequency(Object key) {
+        int hash = key.hashCode();
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < SEEDS.length; row++) {
+            frequency = Math.min(frequency, table[row][index(hash, row)]);
+        }
+        return frequency;
+    }
+
+    private int index(int hash, int row) {
+        long spread = (hash + SEEDS[row]) * SEEDS[row];
+        return (int) (spread >>> 32) & mask;
+    }
+}
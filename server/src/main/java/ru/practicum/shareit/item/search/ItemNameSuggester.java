@@ -0,0 +1,274 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemIndexView;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trie over the names of available items, keyed by the whole name and by every word start in it.
+ * Each node keeps the newest {@link #TOP_K} items below it, so a lookup is one walk down the prefix.
+ * Until the first load completes {@link #suggest} returns an empty Optional and callers fall back to the database.
+ */
+@Component
+public class ItemNameSuggester {
+    public static final int TOP_K = 10;
+    private static final int PAGE_SIZE = 1000;
+    private static final int MAX_KEY_LENGTH = 50;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private volatile boolean ready;
+
+    public ItemNameSuggester(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long lastId = 0;
+        List<ItemIndexView> page;
+        do {
+            page = itemRepository.findByIdGreaterThanOrderById(lastId, Limit.of(PAGE_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (ItemIndexView item : page) {
+                    if (!entries.containsKey(item.getId())) {
+                        put(item.getId(), item.getOwnerId(), item.getName(),
+                                Boolean.TRUE.equals(item.getAvailable()));
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!page.isEmpty()) {
+                lastId = page.getLast().getId();
+            }
+        } while (page.size() == PAGE_SIZE);
+        ready = true;
+    }
+
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            put(item.getId(), item.getOwner() == null ? null : item.getOwner().getId(), item.getName(),
+                    Boolean.TRUE.equals(item.getAvailable()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            List<Entry> owned = entries.values().stream()
+                    .filter(entry -> event.userId().equals(entry.ownerId()))
+                    .toList();
+            for (Entry entry : owned) {
+                entries.remove(entry.id());
+                for (String key : entry.keys()) {
+                    delete(key, entry);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<List<ItemSuggestionDto>> suggest(String prefix, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        String key = SearchTokenizer.normalize(prefix).strip();
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null || node == root) {
+                return Optional.of(List.of());
+            }
+            return Optional.of(Arrays.stream(node.top)
+                    .limit(limit)
+                    .map(entry -> ItemSuggestionDto.builder()
+                            .id(entry.id())
+                            .name(entry.name())
+                            .build())
+                    .toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(long id, Long ownerId, String name, boolean available) {
+        Entry previous = entries.remove(id);
+        if (previous != null) {
+            for (String key : previous.keys()) {
+                delete(key, previous);
+            }
+        }
+        Entry entry = new Entry(id, ownerId, name, available ? keys(name) : Set.of());
+        for (String key : entry.keys()) {
+            insert(key, entry);
+        }
+        entries.put(id, entry);
+    }
+
+    private void insert(String key, Entry entry) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+            node.offer(entry);
+        }
+        node.own.add(entry);
+    }
+
+    private void delete(String key, Entry entry) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+        path[key.length()].own.remove(entry);
+        for (int i = key.length(); i > 0; i--) {
+            Node node = path[i];
+            if (node.contains(entry.id())) {
+                node.recompute();
+            }
+            if (node.own.isEmpty() && node.keys.length == 0) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+            }
+        }
+    }
+
+    private static Set<String> keys(String name) {
+        Set<String> keys = new LinkedHashSet<>();
+        String normalized = SearchTokenizer.normalize(name).strip();
+        for (int i = 0; i < normalized.length(); i++) {
+            boolean wordStart = i == 0 || !Character.isLetterOrDigit(normalized.charAt(i - 1));
+            if (wordStart && Character.isLetterOrDigit(normalized.charAt(i))) {
+                keys.add(normalized.substring(i, Math.min(normalized.length(), i + MAX_KEY_LENGTH)));
+            }
+        }
+        return keys;
+    }
+
+    private record Entry(long id, Long ownerId, String name, Set<String> keys) {
+    }
+
+    private static final class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final Entry[] NO_ENTRIES = new Entry[0];
+
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        Entry[] top = NO_ENTRIES;
+        final List<Entry> own = new ArrayList<>(1);
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node node = new Node();
+            keys = insert(keys, insertAt, c);
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, insertAt);
+            grown[insertAt] = node;
+            System.arraycopy(children, insertAt, grown, insertAt + 1, children.length - insertAt);
+            children = grown;
+            return node;
+        }
+
+        void removeChild(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index < 0) {
+                return;
+            }
+            char[] shrunkKeys = new char[keys.length - 1];
+            System.arraycopy(keys, 0, shrunkKeys, 0, index);
+            System.arraycopy(keys, index + 1, shrunkKeys, index, keys.length - index - 1);
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            keys = shrunkKeys;
+            children = shrunk;
+        }
+
+        boolean contains(long id) {
+            for (Entry entry : top) {
+                if (entry.id() == id) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void offer(Entry entry) {
+            if (contains(entry.id())) {
+                return;
+            }
+            if (top.length == TOP_K && top[TOP_K - 1].id() > entry.id()) {
+                return;
+            }
+            int insertAt = 0;
+            while (insertAt < top.length && top[insertAt].id() > entry.id()) {
+                insertAt++;
+            }
+            Entry[] grown = new Entry[Math.min(top.length + 1, TOP_K)];
+            System.arraycopy(top, 0, grown, 0, insertAt);
+            grown[insertAt] = entry;
+            System.arraycopy(top, insertAt, grown, insertAt + 1, grown.length - insertAt - 1);
+            top = grown;
+        }
+
+        void recompute() {
+            top = NO_ENTRIES;
+            own.forEach(this::offer);
+            for (Node child : children) {
+                for (Entry entry : child.top) {
+                    offer(entry);
+                }
+            }
+        }
+
+        private static char[] insert(char[] array, int index, char c) {
+            char[] grown = new char[array.length + 1];
+            System.arraycopy(array, 0, grown, 0, index);
+            grown[index] = c;
+            System.arraycopy(array, index, grown, index + 1, array.length - index);
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemIndexStatusDto;
+import ru.practicum.shareit.item.dto.ItemIndexView;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over item names and descriptions: term to sorted item ids, a second name-only
+ * posting map used for ranking, and facet bitsets for availability, owner and request that narrow text hits.
+ * Loaded from the database on startup and kept current by the item service.
+ * Until the first load completes {@link #search} returns an empty Optional and callers fall back to the database.
+ */
+@Component
+public class ItemSearchIndex {
+    private static final int PAGE_SIZE = 1000;
+    private static final int MAX_EDIT_DISTANCE = 2;
+    private static final int MAX_EXPANSIONS = 20;
+    private static final BitSet EMPTY = new BitSet();
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state;
+    private State building;
+
+    public ItemSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    public void index(Item item) {
+        Document document = new Document(SearchTokenizer.analyze(item.getName()),
+                terms(item.getName(), item.getDescription()), Boolean.TRUE.equals(item.getAvailable()),
+                item.getOwner() == null ? null : item.getOwner().getId(), item.getRequestId());
+        lock.writeLock().lock();
+        try {
+            if (state != null) {
+                state.put(item.getId(), document);
+            }
+            if (building != null) {
+                building.put(item.getId(), document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (state != null) {
+                state.removeOwner(event.userId());
+            }
+            if (building != null) {
+                building.removeOwner(event.userId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<SearchHits> search(String text, boolean fuzzy) {
+        Set<String> tokens = SearchTokenizer.analyze(text);
+        lock.readLock().lock();
+        try {
+            if (state == null) {
+                return Optional.empty();
+            }
+            long[] ids = null;
+            long[] nameIds = null;
+            for (String token : tokens) {
+                List<String> similar = fuzzy ? state.fuzzyMatch(token) : List.of();
+                long[] matches = state.match(state.postings, token, similar);
+                long[] nameMatches = state.match(state.namePostings, token, similar);
+                ids = ids == null ? matches : PostingList.intersect(ids, matches);
+                nameIds = nameIds == null ? nameMatches : PostingList.intersect(nameIds, nameMatches);
+                if (ids.length == 0) {
+                    break;
+                }
+            }
+            if (ids == null) {
+                return Optional.of(new SearchHits(List.of(), 0));
+            }
+
+            List<Long> ranked = new ArrayList<>(ids.length);
+            for (int i = nameIds.length - 1; i >= 0; i--) {
+                ranked.add(nameIds[i]);
+            }
+            for (int i = ids.length - 1; i >= 0; i--) {
+                if (Arrays.binarySearch(nameIds, ids[i]) < 0) {
+                    ranked.add(ids[i]);
+                }
+            }
+            return Optional.of(new SearchHits(ranked, nameIds.length));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SearchHits filter(SearchHits hits, ItemSearchFilter filter) {
+        lock.readLock().lock();
+        try {
+            if (state == null) {
+                return hits;
+            }
+            BitSet mask = new BitSet();
+            hits.ids().forEach(id -> mask.set(State.bit(id)));
+            if (filter.getAvailable() != null) {
+                if (filter.getAvailable()) {
+                    mask.and(state.available);
+                } else {
+                    mask.andNot(state.available);
+                }
+            }
+            if (filter.getRequestId() != null) {
+                mask.and(state.requests.getOrDefault(filter.getRequestId(), EMPTY));
+            }
+            if (filter.getOwnerIds() != null && !filter.getOwnerIds().isEmpty()) {
+                BitSet owners = new BitSet();
+                filter.getOwnerIds().forEach(ownerId -> owners.or(state.owners.getOrDefault(ownerId, EMPTY)));
+                mask.and(owners);
+            }
+
+            List<Long> ids = new ArrayList<>(mask.cardinality());
+            int nameMatches = 0;
+            for (int i = 0; i < hits.ids().size(); i++) {
+                long id = hits.ids().get(i);
+                if (mask.get(State.bit(id))) {
+                    ids.add(id);
+                    if (i < hits.nameMatches()) {
+                        nameMatches++;
+                    }
+                }
+            }
+            return new SearchHits(ids, nameMatches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public synchronized ItemIndexStatusDto rebuild() {
+        State next = new State();
+        lock.writeLock().lock();
+        try {
+            building = next;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            long lastId = 0;
+            List<ItemIndexView> page;
+            do {
+                page = itemRepository.findByIdGreaterThanOrderById(lastId, Limit.of(PAGE_SIZE));
+                lock.writeLock().lock();
+                try {
+                    for (ItemIndexView item : page) {
+                        if (!next.documents.containsKey(item.getId())) {
+                            next.put(item.getId(), document(item));
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (!page.isEmpty()) {
+                    lastId = page.getLast().getId();
+                }
+            } while (page.size() == PAGE_SIZE);
+
+            lock.writeLock().lock();
+            try {
+                state = next;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                building = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return check();
+    }
+
+    public ItemIndexStatusDto check() {
+        long found = 0;
+        long missing = 0;
+        long mismatched = 0;
+        long lastId = 0;
+        List<ItemIndexView> page;
+        do {
+            page = itemRepository.findByIdGreaterThanOrderById(lastId, Limit.of(PAGE_SIZE));
+            lock.readLock().lock();
+            try {
+                if (state == null) {
+                    return ItemIndexStatusDto.builder()
+                            .ready(false)
+                            .consistent(false)
+                            .build();
+                }
+                for (ItemIndexView item : page) {
+                    Document indexed = state.documents.get(item.getId());
+                    if (indexed == null) {
+                        missing++;
+                        continue;
+                    }
+                    found++;
+                    if (!indexed.equals(document(item))) {
+                        mismatched++;
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (!page.isEmpty()) {
+                lastId = page.getLast().getId();
+            }
+        } while (page.size() == PAGE_SIZE);
+
+        lock.readLock().lock();
+        try {
+            long indexed = state.documents.size();
+            long stale = Math.max(indexed - found, 0);
+            return ItemIndexStatusDto.builder()
+                    .ready(true)
+                    .indexedItems(indexed)
+                    .terms((long) state.postings.size())
+                    .missingItems(missing)
+                    .staleItems(stale)
+                    .mismatchedItems(mismatched)
+                    .consistent(missing == 0 && stale == 0 && mismatched == 0)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static int maxDistance(String term) {
+        if (term.length() < 4) {
+            return 0;
+        }
+        return term.length() < 8 ? 1 : MAX_EDIT_DISTANCE;
+    }
+
+    private static Document document(ItemIndexView item) {
+        return new Document(SearchTokenizer.analyze(item.getName()), terms(item.getName(), item.getDescription()),
+                Boolean.TRUE.equals(item.getAvailable()), item.getOwnerId(), item.getRequestId());
+    }
+
+    private static Set<String> terms(String name, String description) {
+        Set<String> terms = new LinkedHashSet<>(SearchTokenizer.analyze(name));
+        terms.addAll(SearchTokenizer.analyze(description));
+        return terms;
+    }
+
+    private record Document(Set<String> nameTerms, Set<String> terms, boolean available, Long ownerId,
+                            Long requestId) {
+    }
+
+    private static final class State {
+        final NavigableMap<String, PostingList> postings = new TreeMap<>();
+        final NavigableMap<String, PostingList> namePostings = new TreeMap<>();
+        final Map<Long, Document> documents = new HashMap<>();
+        final BitSet available = new BitSet();
+        final Map<Long, BitSet> owners = new HashMap<>();
+        final Map<Long, BitSet> requests = new HashMap<>();
+        final BkTree dictionary = new BkTree();
+
+        void put(long id, Document document) {
+            remove(id);
+            for (String term : document.terms()) {
+                postings.computeIfAbsent(term, key -> {
+                    dictionary.add(key);
+                    return new PostingList();
+                }).add(id);
+            }
+            for (String term : document.nameTerms()) {
+                namePostings.computeIfAbsent(term, key -> new PostingList()).add(id);
+            }
+            documents.put(id, document);
+            available.set(bit(id), document.available());
+            if (document.ownerId() != null) {
+                owners.computeIfAbsent(document.ownerId(), key -> new BitSet()).set(bit(id));
+            }
+            if (document.requestId() != null) {
+                requests.computeIfAbsent(document.requestId(), key -> new BitSet()).set(bit(id));
+            }
+        }
+
+        void remove(long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            unlink(postings, id, document.terms());
+            unlink(namePostings, id, document.nameTerms());
+            available.clear(bit(id));
+            clear(owners, document.ownerId(), id);
+            clear(requests, document.requestId(), id);
+        }
+
+        void removeOwner(Long ownerId) {
+            BitSet owned = owners.get(ownerId);
+            if (owned == null) {
+                return;
+            }
+            for (long id : owned.stream().asLongStream().toArray()) {
+                remove(id);
+            }
+        }
+
+        long[] match(NavigableMap<String, PostingList> source, String prefix, List<String> similar) {
+            List<PostingList> lists = new ArrayList<>(
+                    source.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values());
+            for (String term : similar) {
+                PostingList list = source.get(term);
+                if (list != null) {
+                    lists.add(list);
+                }
+            }
+            return PostingList.unionAll(lists);
+        }
+
+        List<String> fuzzyMatch(String term) {
+            List<String> terms = new ArrayList<>();
+            for (BkTree.Match match : dictionary.find(term, maxDistance(term))) {
+                if (!postings.containsKey(match.term())) {
+                    continue;
+                }
+                terms.add(match.term());
+                if (terms.size() == MAX_EXPANSIONS) {
+                    break;
+                }
+            }
+            return terms;
+        }
+
+        private static void unlink(Map<String, PostingList> source, long id, Set<String> terms) {
+            for (String term : terms) {
+                PostingList list = source.get(term);
+                if (list != null && list.remove(id) && list.isEmpty()) {
+                    source.remove(term);
+                }
+            }
+        }
+
+        private static void clear(Map<Long, BitSet> facet, Long value, long id) {
+            BitSet bits = value == null ? null : facet.get(value);
+            if (bits != null) {
+                bits.clear(bit(id));
+                if (bits.isEmpty()) {
+                    facet.remove(value);
+                }
+            }
+        }
+
+        static int bit(long id) {
+            return Math.toIntExact(id);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+final class PostingList {
+    private long[] ids = new long[4];
+    private int size;
+
+    boolean add(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return false;
+        }
+        position = -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+        return true;
+    }
+
+    boolean remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    static long[] unionAll(Collection<PostingList> lists) {
+        int total = 0;
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(Math.max(1, lists.size()),
+                Comparator.comparingLong(Cursor::current));
+        for (PostingList list : lists) {
+            if (list.size > 0) {
+                total += list.size;
+                heap.add(new Cursor(list));
+            }
+        }
+        long[] result = new long[total];
+        int size = 0;
+        while (!heap.isEmpty()) {
+            Cursor cursor = heap.poll();
+            long next = cursor.current();
+            if (size == 0 || result[size - 1] != next) {
+                result[size++] = next;
+            }
+            if (++cursor.position < cursor.list.size) {
+                heap.add(cursor);
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    static long[] intersect(long[] first, long[] second) {
+        long[] result = new long[Math.min(first.length, second.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (second[j] < first[i]) {
+                j++;
+            } else {
+                result[size++] = first[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static final class Cursor {
+        final PostingList list;
+        int position;
+
+        Cursor(PostingList list) {
+            this.list = list;
+        }
+
+        long current() {
+            return list.ids[position];
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Snowball stemmer for Russian. Expects lower-case input with ё already folded to е.
+ */
+@UtilityClass
+class RussianStemmer {
+    private static final String VOWELS = "аеиоуыэюя";
+
+    private static final String[] PERFECTIVE_GERUND_1 = {"вшись", "вши", "в"};
+    private static final String[] PERFECTIVE_GERUND_2 = {"ившись", "ывшись", "ивши", "ывши", "ив", "ыв"};
+    private static final String[] REFLEXIVE = {"ся", "сь"};
+    private static final String[] ADJECTIVE = {"ими", "ыми", "его", "ого", "ему", "ому", "ее", "ие", "ые", "ое",
+            "ей", "ий", "ый", "ой", "ем", "им", "ым", "ом", "их", "ых", "ую", "юю", "ая", "яя", "ою", "ею"};
+    private static final String[] PARTICIPLE_1 = {"ем", "нн", "вш", "ющ", "щ"};
+    private static final String[] PARTICIPLE_2 = {"ивш", "ывш", "ующ"};
+    private static final String[] VERB_1 = {"ете", "йте", "ешь", "нно", "ла", "на", "ли", "ем", "ло", "но", "ет",
+            "ют", "ны", "ть", "й", "л", "н"};
+    private static final String[] VERB_2 = {"ейте", "уйте", "ила", "ыла", "ена", "ите", "или", "ыли", "ило", "ыло",
+            "ено", "ует", "уют", "ены", "ить", "ыть", "ишь", "ей", "уй", "ил", "ыл", "им", "ым", "ен", "ят", "ит",
+            "ыт", "ую", "ю"};
+    private static final String[] NOUN = {"иями", "ями", "ами", "ией", "иям", "ием", "иях", "ев", "ов", "ие", "ье",
+            "еи", "ии", "ей", "ой", "ий", "ям", "ем", "ам", "ом", "ах", "ях", "ию", "ью", "ия", "ья", "а", "е", "и",
+            "й", "о", "у", "ы", "ь", "ю", "я"};
+    private static final String[] SUPERLATIVE = {"ейше", "ейш"};
+    private static final String[] DERIVATIONAL = {"ость", "ост"};
+
+    static String stem(String word) {
+        int rv = regionAfterVowel(word, 0);
+        if (rv >= word.length()) {
+            return word;
+        }
+        int r2 = regionAfterConsonant(word, regionAfterConsonant(word, 0));
+
+        StringBuilder stem = new StringBuilder(word);
+        if (!removeGroups(stem, rv, PERFECTIVE_GERUND_1, PERFECTIVE_GERUND_2)) {
+            removeLongest(stem, rv, REFLEXIVE);
+            if (removeLongest(stem, rv, ADJECTIVE)) {
+                removeGroups(stem, rv, PARTICIPLE_1, PARTICIPLE_2);
+            } else if (!removeGroups(stem, rv, VERB_1, VERB_2)) {
+                removeLongest(stem, rv, NOUN);
+            }
+        }
+
+        removeLongest(stem, rv, new String[]{"и"});
+        removeLongest(stem, r2, DERIVATIONAL);
+
+        if (endsWith(stem, rv, "нн")) {
+            stem.setLength(stem.length() - 1);
+        } else if (removeLongest(stem, rv, SUPERLATIVE)) {
+            if (endsWith(stem, rv, "нн")) {
+                stem.setLength(stem.length() - 1);
+            }
+        } else if (endsWith(stem, rv, "ь")) {
+            stem.setLength(stem.length() - 1);
+        }
+        return stem.toString();
+    }
+
+    private static boolean removeGroups(StringBuilder stem, int region, String[] afterAOrYa, String[] anywhere) {
+        String best = null;
+        for (String suffix : afterAOrYa) {
+            int start = stem.length() - suffix.length();
+            if (endsWith(stem, region, suffix) && start - 1 >= region
+                    && (stem.charAt(start - 1) == 'а' || stem.charAt(start - 1) == 'я')
+                    && (best == null || suffix.length() > best.length())) {
+                best = suffix;
+            }
+        }
+        for (String suffix : anywhere) {
+            if (endsWith(stem, region, suffix) && (best == null || suffix.length() > best.length())) {
+                best = suffix;
+            }
+        }
+        if (best == null) {
+            return false;
+        }
+        stem.setLength(stem.length() - best.length());
+        return true;
+    }
+
+    private static boolean removeLongest(StringBuilder stem, int region, String[] suffixes) {
+        String best = null;
+        for (String suffix : suffixes) {
+            if (endsWith(stem, region, suffix) && (best == null || suffix.length() > best.length())) {
+                best = suffix;
+            }
+        }
+        if (best == null) {
+            return false;
+        }
+        stem.setLength(stem.length() - best.length());
+        return true;
+    }
+
+    private static boolean endsWith(StringBuilder stem, int region, String suffix) {
+        int start = stem.length() - suffix.length();
+        return start >= region && stem.indexOf(suffix, start) == start;
+    }
+
+    private static int regionAfterVowel(String word, int from) {
+        for (int i = from; i < word.length(); i++) {
+            if (isVowel(word.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+
+    private static int regionAfterConsonant(String word, int from) {
+        for (int i = from + 1; i < word.length(); i++) {
+            if (!isVowel(word.charAt(i)) && isVowel(word.charAt(i - 1))) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+
+    private static boolean isVowel(char c) {
+        return VOWELS.indexOf(c) >= 0;
+    }
+}
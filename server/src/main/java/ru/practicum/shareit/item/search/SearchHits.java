@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Matching item ids in rank order: the first {@code nameMatches} ids match the query in the item name,
+ * the rest only in the description; each group is sorted newest first.
+ * A cursor id that no longer matches resumes among the description matches.
+ */
+public record SearchHits(List<Long> ids, int nameMatches) {
+    public int indexAfter(long id) {
+        int index = search(0, nameMatches, id);
+        if (index >= 0) {
+            return index + 1;
+        }
+        index = search(nameMatches, ids.size(), id);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private int search(int from, int to, long id) {
+        int index = Collections.binarySearch(ids.subList(from, to), id, Collections.reverseOrder());
+        return index >= 0 ? from + index : index - from;
+    }
+}
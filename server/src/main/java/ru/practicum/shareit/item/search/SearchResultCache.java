@@ -0,0 +1,198 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Ranked search hits per analyzed query, bounded W-TinyLFU style: new queries enter a small LRU window and
+ * move to the main LRU segment only if the frequency sketch rates them above the entry they would evict.
+ * Writes drop exactly the queries whose tokens prefix-match, or for fuzzy queries are within edit distance of,
+ * a term of the changed item. Results computed while a write was in progress are not stored.
+ */
+@Component
+public class SearchResultCache {
+    private static final int CAPACITY = 1024;
+    private static final int WINDOW_CAPACITY = Math.max(1, CAPACITY / 100);
+
+    private final Map<String, Entry> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Entry> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<String>> keysByToken = new HashMap<>();
+    private final Map<String, Set<String>> keysByFuzzyToken = new HashMap<>();
+    private final FrequencySketch sketch = new FrequencySketch(CAPACITY);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private long writes;
+
+    public SearchResultCache(MeterRegistry registry) {
+        FunctionCounter.builder("shareit.search.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("shareit.search.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("shareit.search.cache.evictions", evictions, AtomicLong::get)
+                .register(registry);
+        FunctionCounter.builder("shareit.search.cache.invalidations", invalidations, AtomicLong::get)
+                .register(registry);
+        Gauge.builder("shareit.search.cache.size", this, SearchResultCache::size)
+                .register(registry);
+        Gauge.builder("shareit.search.cache.hit.ratio", this, SearchResultCache::hitRatio)
+                .register(registry);
+    }
+
+    public Optional<SearchHits> get(String text, boolean fuzzy, Supplier<Optional<SearchHits>> loader) {
+        Set<String> tokens = new TreeSet<>(SearchTokenizer.analyze(text));
+        String key = (fuzzy ? "~" : "") + String.join(" ", tokens);
+        long generation;
+        synchronized (this) {
+            sketch.increment(key);
+            Entry entry = window.containsKey(key) ? window.get(key) : main.get(key);
+            if (entry != null) {
+                hits.incrementAndGet();
+                return Optional.of(entry.hits());
+            }
+            misses.incrementAndGet();
+            generation = writes;
+        }
+
+        Optional<SearchHits> result = loader.get();
+        if (result.isPresent()) {
+            synchronized (this) {
+                if (writes == generation && !window.containsKey(key) && !main.containsKey(key)) {
+                    admit(key, new Entry(tokens, fuzzy, result.get()));
+                }
+            }
+        }
+        return result;
+    }
+
+    public void invalidate(String... texts) {
+        Set<String> terms = new HashSet<>();
+        for (String text : texts) {
+            terms.addAll(SearchTokenizer.analyze(text));
+        }
+        synchronized (this) {
+            writes++;
+            Set<String> affected = new HashSet<>();
+            for (String term : terms) {
+                for (int length = 1; length <= term.length(); length++) {
+                    affected.addAll(keysByToken.getOrDefault(term.substring(0, length), Set.of()));
+                }
+                for (Map.Entry<String, Set<String>> fuzzy : keysByFuzzyToken.entrySet()) {
+                    int maxDistance = ItemSearchIndex.maxDistance(fuzzy.getKey());
+                    if (BkTree.distance(fuzzy.getKey(), term, maxDistance) <= maxDistance) {
+                        affected.addAll(fuzzy.getValue());
+                    }
+                }
+            }
+            for (String key : affected) {
+                Entry entry = window.containsKey(key) ? window.remove(key) : main.remove(key);
+                if (entry != null) {
+                    unlink(key, entry);
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        writes++;
+        window.clear();
+        main.clear();
+        keysByToken.clear();
+        keysByFuzzyToken.clear();
+    }
+
+    /**
+     * Hits do not carry the owner, so a deleted owner's items can be dropped only by clearing everything.
+     * Runs after {@link ItemSearchIndex#onUserDeleted} so that a reload cannot cache the removed items again.
+     */
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        clear();
+    }
+
+    private void admit(String key, Entry entry) {
+        window.put(key, entry);
+        link(key, entry);
+        if (window.size() <= WINDOW_CAPACITY) {
+            return;
+        }
+
+        Iterator<Map.Entry<String, Entry>> windowIterator = window.entrySet().iterator();
+        Map.Entry<String, Entry> candidate = windowIterator.next();
+        windowIterator.remove();
+        if (main.size() < CAPACITY - WINDOW_CAPACITY) {
+            main.put(candidate.getKey(), candidate.getValue());
+            return;
+        }
+
+        Iterator<Map.Entry<String, Entry>> mainIterator = main.entrySet().iterator();
+        Map.Entry<String, Entry> victim = mainIterator.next();
+        if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())) {
+            mainIterator.remove();
+            unlink(victim.getKey(), victim.getValue());
+            main.put(candidate.getKey(), candidate.getValue());
+        } else {
+            unlink(candidate.getKey(), candidate.getValue());
+        }
+        evictions.incrementAndGet();
+    }
+
+    private void link(String key, Entry entry) {
+        for (String token : entry.tokens()) {
+            keysByToken.computeIfAbsent(token, ignored -> new HashSet<>()).add(key);
+            if (entry.fuzzy()) {
+                keysByFuzzyToken.computeIfAbsent(token, ignored -> new HashSet<>()).add(key);
+            }
+        }
+    }
+
+    private void unlink(String key, Entry entry) {
+        for (String token : entry.tokens()) {
+            remove(keysByToken, token, key);
+            if (entry.fuzzy()) {
+                remove(keysByFuzzyToken, token, key);
+            }
+        }
+    }
+
+    private static void remove(Map<String, Set<String>> keys, String token, String key) {
+        Set<String> tokenKeys = keys.get(token);
+        if (tokenKeys != null && tokenKeys.remove(key) && tokenKeys.isEmpty()) {
+            keys.remove(token);
+        }
+    }
+
+    private synchronized int size() {
+        return window.size() + main.size();
+    }
+
+    private double hitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private record Entry(Set<String> tokens, boolean fuzzy, SearchHits hits) {
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@UtilityClass
+public class SearchTokenizer {
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern CYRILLIC = Pattern.compile("[а-я]+");
+    private static final Pattern LATIN = Pattern.compile("[a-z]+");
+
+    public static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String term : SEPARATOR.split(normalize(text))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    public static Set<String> analyze(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String token : tokenize(text)) {
+            terms.add(stem(token));
+        }
+        return terms;
+    }
+
+    public static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+
+    static String stem(String token) {
+        if (CYRILLIC.matcher(token).matches()) {
+            return RussianStemmer.stem(token);
+        }
+        if (LATIN.matcher(token).matches()) {
+            return EnglishStemmer.stem(token);
+        }
+        return token;
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+/**
+ * Validated {@code from}/{@code size} parameters for Spring Data scrolling. Keyset cursors differ per
+ * resource, so callers build those themselves and fall back to {@link #offset} without one.
+ */
+@UtilityClass
+public class Pagination {
+
+    public static ScrollPosition offset(Integer from) {
+        if (from == null || from < 0) {
+            throw new ValidationException("Некорректное значение from: " + from);
+        }
+        return from == 0 ? ScrollPosition.offset() : ScrollPosition.offset(from - 1);
+    }
+
+    public static Limit limit(Integer size) {
+        if (size == null || size <= 0) {
+            throw new ValidationException("Некорректное значение size: " + size);
+        }
+        return Limit.of(size);
+    }
+}
@@ -5,9 +5,12 @@ import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import ru.practicum.shareit.constant.UserConstant;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestThingsDto;
+import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 
 import java.util.List;
 
@@ -28,9 +31,20 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestThingsDto> getAllRequests(@RequestHeader(UserConstant.X_SHARER_USER_ID) Long userId) {
+    public List<ItemRequestThingsDto> getAllRequests(@RequestHeader(UserConstant.X_SHARER_USER_ID) Long userId,
+                                                     @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                     @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                     @RequestParam(name = "afterId", required = false) Long afterId) {
         log.info("Выполнение getAllRequests");
-        return itemRequestService.getAllRequests(userId);
+        return itemRequestService.getAllRequests(userId, from, size, afterId);
+    }
+
+    @GetMapping("/matches")
+    public DeferredResult<List<RequestMatchDto>> pollMatches(
+            @RequestHeader(UserConstant.X_SHARER_USER_ID) Long userId,
+            @RequestParam(name = "timeout", defaultValue = "30") Integer timeout) {
+        log.info("Выполнение pollMatches");
+        return itemRequestService.pollMatches(userId, timeout);
     }
 
     @GetMapping("/{request-id}")
@@ -40,8 +54,11 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllFromUser(@RequestHeader(UserConstant.X_SHARER_USER_ID) Long userId) {
+    public List<ItemRequestWithItemsDto> getAllFromUser(@RequestHeader(UserConstant.X_SHARER_USER_ID) Long userId,
+                                                     @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                     @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                     @RequestParam(name = "afterId", required = false) Long afterId) {
         log.info("Выполнение getAllFromUser");
-        return itemRequestService.getAllByUser(userId);
+        return itemRequestService.getAllByUser(userId, from, size, afterId);
     }
 }
@@ -3,6 +3,7 @@ package ru.practicum.shareit.request;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestThingsDto;
+import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.time.LocalDateTime;
@@ -37,6 +38,17 @@ public class ItemRequestMapper {
                 .build();
     }
 
+    public static ItemRequestWithItemsDto toItemRequestWithItemsDto(ItemRequest itemRequest,
+                                                                    List<ItemResponseDto> itemResponseDto) {
+        return ItemRequestWithItemsDto.builder()
+                .id(itemRequest.getId())
+                .description(itemRequest.getDescription())
+                .requester(itemRequest.getRequester())
+                .created(itemRequest.getCreated())
+                .items(itemResponseDto != null ? List.copyOf(itemResponseDto) : null)
+                .build();
+    }
+
     private static String toStringTime(LocalDateTime created) {
         return DateTimeFormatter
                 .ofPattern("yyyy.MM.dd HH:mm:ss")
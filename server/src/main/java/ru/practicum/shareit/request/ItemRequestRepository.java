@@ -1,14 +1,26 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.dto.ItemRequestIndexView;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findByRequester_Id(Long requesterId);
+    Window<ItemRequest> findByRequester_Id(Long requesterId, ScrollPosition position, Limit limit, Sort sort);
 
-    List<ItemRequest> findByRequesterIdNot(Long requesterId, Sort sort);
+    @Query("SELECT r.id AS id, r.requester.id AS requesterId, r.description AS description FROM ItemRequest r " +
+            "WHERE r.id > :id AND NOT EXISTS (SELECT i.id FROM Item i WHERE i.requestId = r.id) ORDER BY r.id")
+    List<ItemRequestIndexView> findOpenByIdGreaterThan(@Param("id") Long id, Limit limit);
+
+    @EntityGraph(attributePaths = {"requester"})
+    Window<ItemRequest> findByRequesterIdNot(Long requesterId, ScrollPosition position, Limit limit, Sort sort);
 
 }
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.web.context.request.async.DeferredResult;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestThingsDto;
+import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 
 import java.util.List;
 
@@ -11,7 +14,9 @@ public interface ItemRequestService {
 
     ItemRequestThingsDto get(Long requestId);
 
-    List<ItemRequestThingsDto> getAllRequests(Long userId);
+    List<ItemRequestThingsDto> getAllRequests(Long userId, Integer from, Integer size, Long afterId);
 
-    List<ItemRequestDto> getAllByUser(Long userId);
+    DeferredResult<List<RequestMatchDto>> pollMatches(Long userId, Integer timeout);
+
+    List<ItemRequestWithItemsDto> getAllByUser(Long userId, Integer from, Integer size, Long afterId);
 }
@@ -3,43 +3,66 @@ package ru.practicum.shareit.request;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Pagination;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestThingsDto;
+import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.match.RequestMatchIndex;
+import ru.practicum.shareit.request.match.RequestMatchNotifier;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserCache;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
 @AllArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
+    private static final int MAX_POLL_SECONDS = 60;
+    private static final Sort SORT_BY_CREATED_DESC = Sort.by(Sort.Direction.DESC, "created", "id");
+
     ItemRequestRepository itemRequestRepository;
     ItemRepository itemRepository;
-    UserRepository userRepository;
+    UserCache userCache;
+    RequestMatchIndex requestMatchIndex;
+    RequestMatchNotifier requestMatchNotifier;
 
     @Override
     public ItemRequestDto addRequest(Long userId, ItemRequestDto itemRequestDto) {
-        User requesting = userRepository.findById(userId).orElseThrow(() ->
+        User requesting = userCache.findById(userId).orElseThrow(() ->
                 new NotFoundException("Пользователь не найден c id = " + userId));
         itemRequestDto.setRequester(requesting);
         itemRequestDto.setCreated(LocalDateTime.now());
 
-        return ItemRequestMapper.toItemRequestDto(itemRequestRepository.save(ItemRequestMapper
-                .toItemRequest(itemRequestDto)));
+        ItemRequest itemRequest;
+        try {
+            itemRequest = itemRequestRepository.save(ItemRequestMapper.toItemRequest(itemRequestDto));
+        } catch (DataIntegrityViolationException e) {
+            userCache.invalidate(userId);
+            throw new NotFoundException("Пользователь не найден c id = " + userId);
+        }
+        requestMatchIndex.index(itemRequest);
+
+        return ItemRequestMapper.toItemRequestDto(itemRequest);
     }
 
     @Override
@@ -54,29 +77,54 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
-    public List<ItemRequestThingsDto> getAllRequests(Long userId) {
-        List<ItemRequest> itemRequests = itemRequestRepository.findByRequester_Id(userId);
+    public List<ItemRequestThingsDto> getAllRequests(Long userId, Integer from, Integer size, Long afterId) {
+        ScrollPosition position = toScrollPosition(from, afterId, after -> after.getRequester().getId().equals(userId));
+        List<ItemRequest> itemRequests = itemRequestRepository.findByRequester_Id(userId, position, Pagination.limit(size),
+                SORT_BY_CREATED_DESC).getContent();
 
-        List<Item> itemList = itemRepository.findItemsByRequestIds(itemRequests.stream()
-                .map(ItemRequest::getId).collect(Collectors.toList()));
+        return withItems(itemRequests, ItemRequestMapper::toItemRequestThingsDto);
+    }
 
-        return itemRequests.stream()
-                .sorted(Comparator.comparing(ItemRequest::getCreated).reversed())
-                .map(itemRequest -> ItemRequestMapper.toItemRequestThingsDto(
-                        itemRequest, getItemResponseMap(itemList).get(itemRequest.getId())))
-                .collect(Collectors.toList());
+    @Override
+    public DeferredResult<List<RequestMatchDto>> pollMatches(Long userId, Integer timeout) {
+        if (timeout == null || timeout <= 0 || timeout > MAX_POLL_SECONDS) {
+            throw new ValidationException("Некорректное значение timeout: " + timeout);
+        }
+        return requestMatchNotifier.poll(userId, TimeUnit.SECONDS.toMillis(timeout));
     }
 
     @Override
-    public List<ItemRequestDto> getAllByUser(Long userId) {
-        Sort sort = Sort.by(Sort.Direction.DESC, "created");
-        List<ItemRequest> requests = itemRequestRepository.findByRequesterIdNot(userId, sort);
+    public List<ItemRequestWithItemsDto> getAllByUser(Long userId, Integer from, Integer size, Long afterId) {
+        ScrollPosition position = toScrollPosition(from, afterId, after -> !after.getRequester().getId().equals(userId));
+        List<ItemRequest> requests = itemRequestRepository.findByRequesterIdNot(userId, position, Pagination.limit(size),
+                SORT_BY_CREATED_DESC).getContent();
 
-        return requests.stream()
-                .map(ItemRequestMapper::toItemRequestDto)
+        return withItems(requests, ItemRequestMapper::toItemRequestWithItemsDto);
+    }
+
+    private <T> List<T> withItems(List<ItemRequest> itemRequests,
+                                  BiFunction<ItemRequest, List<ItemResponseDto>, T> mapper) {
+        if (itemRequests.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<ItemResponseDto>> items = getItemResponseMap(itemRepository.findItemsByRequestIds(
+                itemRequests.stream().map(ItemRequest::getId).toList()));
+
+        return itemRequests.stream()
+                .map(itemRequest -> mapper.apply(itemRequest, items.get(itemRequest.getId())))
                 .toList();
     }
 
+    private ScrollPosition toScrollPosition(Integer from, Long afterId, Predicate<ItemRequest> visible) {
+        if (afterId != null) {
+            ItemRequest after = itemRequestRepository.findById(afterId)
+                    .filter(visible)
+                    .orElseThrow(() -> new NotFoundException("Запрос с id = " + afterId + " не найден"));
+            return ScrollPosition.forward(Map.of("created", after.getCreated(), "id", after.getId()));
+        }
+        return Pagination.offset(from);
+    }
+
     private Map<Long, List<ItemResponseDto>> getItemResponseMap(List<Item> itemList) {
         return itemList.stream()
                 .collect(Collectors.groupingBy(Item::getRequestId,
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.request.dto;
+
+public interface ItemRequestIndexView {
+    Long getId();
+
+    Long getRequesterId();
+
+    String getDescription();
+}
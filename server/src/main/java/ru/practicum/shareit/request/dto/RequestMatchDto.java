@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RequestMatchDto {
+    Long requestId;
+    Long requesterId;
+    String requestDescription;
+    Long itemId;
+    String itemName;
+    Long ownerId;
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.request.match;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.SearchTokenizer;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestIndexView;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from stemmed terms to open requests, i.e. requests nobody has answered with an item yet.
+ * A new item matches a request when at least half of its name terms occur in the request description.
+ */
+@Component
+public class RequestMatchIndex {
+    private static final int PAGE_SIZE = 1000;
+    private static final int MAX_MATCHES = 100;
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, OpenRequest> requests = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    public RequestMatchIndex(ItemRequestRepository itemRequestRepository) {
+        this.itemRequestRepository = itemRequestRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long lastId = 0;
+        List<ItemRequestIndexView> page;
+        do {
+            page = itemRequestRepository.findOpenByIdGreaterThan(lastId, Limit.of(PAGE_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (ItemRequestIndexView request : page) {
+                    put(request.getId(), request.getRequesterId(), request.getDescription());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!page.isEmpty()) {
+                lastId = page.getLast().getId();
+            }
+        } while (page.size() == PAGE_SIZE);
+    }
+
+    public void index(ItemRequest request) {
+        lock.writeLock().lock();
+        try {
+            put(request.getId(), request.getRequester().getId(), request.getDescription());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<RequestMatchDto> match(Item item) {
+        Long ownerId = item.getOwner().getId();
+        Set<String> nameTerms = SearchTokenizer.analyze(item.getName());
+        List<RequestMatchDto> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> hits = new HashMap<>();
+            for (String term : nameTerms) {
+                for (Long requestId : postings.getOrDefault(term, Set.of())) {
+                    hits.merge(requestId, 1, Integer::sum);
+                }
+            }
+            if (item.getRequestId() != null) {
+                hits.put(item.getRequestId(), nameTerms.size());
+            }
+            hits.entrySet().stream()
+                    .filter(hit -> hit.getValue() * 2 >= nameTerms.size())
+                    .map(Map.Entry::getKey)
+                    .sorted(Comparator.reverseOrder())
+                    .filter(requestId -> requests.containsKey(requestId)
+                            && !requests.get(requestId).requesterId().equals(ownerId))
+                    .limit(MAX_MATCHES)
+                    .forEach(requestId -> matches.add(toMatch(requestId, requests.get(requestId), item)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    public void close(Long requestId) {
+        lock.writeLock().lock();
+        try {
+            remove(requestId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            requests.entrySet().stream()
+                    .filter(request -> request.getValue().requesterId().equals(event.userId()))
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long requestId) {
+        OpenRequest request = requests.remove(requestId);
+        if (request != null) {
+            for (String term : request.terms()) {
+                Set<Long> ids = postings.get(term);
+                ids.remove(requestId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private void put(Long requestId, Long requesterId, String description) {
+        if (requests.containsKey(requestId)) {
+            return;
+        }
+        Set<String> terms = SearchTokenizer.analyze(description);
+        requests.put(requestId, new OpenRequest(requesterId, description, terms));
+        for (String term : terms) {
+            postings.computeIfAbsent(term, key -> new HashSet<>()).add(requestId);
+        }
+    }
+
+    private static RequestMatchDto toMatch(Long requestId, OpenRequest request, Item item) {
+        return RequestMatchDto.builder()
+                .requestId(requestId)
+                .requesterId(request.requesterId())
+                .requestDescription(request.description())
+                .itemId(item.getId())
+                .itemName(item.getName())
+                .ownerId(item.getOwner().getId())
+                .build();
+    }
+
+    private record OpenRequest(Long requesterId, String description, Set<String> terms) {
+    }
+}
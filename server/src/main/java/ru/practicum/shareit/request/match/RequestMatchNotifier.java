@@ -0,0 +1,156 @@
+package ru.practicum.shareit.request.match;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Delivers request matches to requesters over long polling. Matches are handed to a single worker through
+ * a bounded queue, so item creation never waits on delivery; the worker files them into per-requester
+ * mailboxes and completes a parked poll if there is one. Full queues and mailboxes drop the oldest match.
+ * Only requesters who polled within {@link #RETENTION_NANOS} have a mailbox; matches for anyone else are dropped.
+ */
+@Component
+public class RequestMatchNotifier {
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int MAILBOX_CAPACITY = 100;
+    static final long RETENTION_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final ThreadPoolExecutor worker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            Thread.ofPlatform().name("request-matches").daemon().factory(),
+            new ThreadPoolExecutor.DiscardOldestPolicy());
+    private final Lock lock = new ReentrantLock();
+    private final Map<Long, Mailbox> mailboxes = new LinkedHashMap<>();
+    private final LongSupplier clock;
+
+    @Autowired
+    public RequestMatchNotifier() {
+        this(System::nanoTime);
+    }
+
+    RequestMatchNotifier(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public void publish(List<RequestMatchDto> matches) {
+        if (!matches.isEmpty()) {
+            worker.execute(() -> matches.forEach(this::deliver));
+        }
+    }
+
+    public DeferredResult<List<RequestMatchDto>> poll(Long userId, long timeoutMillis) {
+        DeferredResult<List<RequestMatchDto>> result = new DeferredResult<>(timeoutMillis, List::of);
+        lock.lock();
+        try {
+            long now = clock.getAsLong();
+            evictIdle(now);
+            Mailbox mailbox = mailboxes.remove(userId);
+            if (mailbox == null) {
+                mailbox = new Mailbox();
+            }
+            mailbox.lastPoll = now;
+            mailboxes.put(userId, mailbox);
+            if (!mailbox.matches.isEmpty()) {
+                result.setResult(mailbox.drain());
+                return result;
+            }
+            mailbox.waiters.add(result);
+        } finally {
+            lock.unlock();
+        }
+        result.onCompletion(() -> forget(userId, result));
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void deliver(RequestMatchDto match) {
+        lock.lock();
+        try {
+            evictIdle(clock.getAsLong());
+            Mailbox mailbox = mailboxes.get(match.getRequesterId());
+            if (mailbox == null) {
+                return;
+            }
+            if (mailbox.matches.size() == MAILBOX_CAPACITY) {
+                mailbox.matches.pollFirst();
+            }
+            mailbox.matches.addLast(match);
+            while (!mailbox.waiters.isEmpty()) {
+                List<RequestMatchDto> batch = mailbox.drain();
+                if (mailbox.waiters.pollFirst().setResult(batch)) {
+                    break;
+                }
+                mailbox.matches.addAll(batch);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void forget(Long userId, DeferredResult<List<RequestMatchDto>> result) {
+        lock.lock();
+        try {
+            Mailbox mailbox = mailboxes.get(userId);
+            if (mailbox != null) {
+                mailbox.waiters.remove(result);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int mailboxCount() {
+        lock.lock();
+        try {
+            return mailboxes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictIdle(long now) {
+        Iterator<Mailbox> iterator = mailboxes.values().iterator();
+        while (iterator.hasNext()) {
+            Mailbox mailbox = iterator.next();
+            if (now - mailbox.lastPoll < RETENTION_NANOS) {
+                break;
+            }
+            if (mailbox.waiters.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Mailbox {
+        final Deque<RequestMatchDto> matches = new ArrayDeque<>();
+        final Deque<DeferredResult<List<RequestMatchDto>>> waiters = new ArrayDeque<>();
+        long lastPoll;
+
+        List<RequestMatchDto> drain() {
+            List<RequestMatchDto> batch = new ArrayList<>(matches);
+            matches.clear();
+            return batch;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU of user snapshots by id in front of {@link UserRepository}, with short-lived negative entries for
+ * unknown ids. {@link UserServiceImpl} invalidates on every write; the TTL bounds staleness for anything else.
+ * A load is stored only if its id was not invalidated meanwhile, so writes to other users do not defeat caching.
+ * Callers get a detached copy that is safe to use as an association reference. A cached user may already be
+ * deleted, so writes that reference it must map a foreign key violation to "not found".
+ */
+@Component
+public class UserCache {
+    private static final int CAPACITY = 10_000;
+    private static final long TTL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long NEGATIVE_TTL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final UserRepository userRepository;
+    private final LongSupplier clock;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            if (size() > CAPACITY) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+    private final Map<Long, Object> loads = new HashMap<>();
+
+    @Autowired
+    public UserCache(UserRepository userRepository, MeterRegistry registry) {
+        this(userRepository, registry, System::nanoTime);
+    }
+
+    UserCache(UserRepository userRepository, MeterRegistry registry, LongSupplier clock) {
+        this.userRepository = userRepository;
+        this.clock = clock;
+        FunctionCounter.builder("shareit.user.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("shareit.user.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("shareit.user.cache.evictions", evictions, AtomicLong::get)
+                .register(registry);
+        Gauge.builder("shareit.user.cache.size", this, UserCache::size)
+                .register(registry);
+    }
+
+    public Optional<User> findById(Long id) {
+        Object load = new Object();
+        synchronized (this) {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.expiresAt() - clock.getAsLong() > 0) {
+                hits.incrementAndGet();
+                return Optional.ofNullable(entry.user()).map(UserCache::copy);
+            }
+            if (entry != null) {
+                entries.remove(id);
+            }
+            misses.incrementAndGet();
+            loads.put(id, load);
+        }
+
+        Optional<User> user;
+        try {
+            user = userRepository.findById(id).map(UserCache::copy);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                loads.remove(id, load);
+            }
+            throw e;
+        }
+        synchronized (this) {
+            if (loads.remove(id, load)) {
+                long ttl = user.isPresent() ? TTL_NANOS : NEGATIVE_TTL_NANOS;
+                entries.put(id, new Entry(user.map(UserCache::copy).orElse(null), clock.getAsLong() + ttl));
+            }
+        }
+        return user;
+    }
+
+    public synchronized void invalidate(Long id) {
+        loads.remove(id);
+        entries.remove(id);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static User copy(User user) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
+
+    private record Entry(User user, long expiresAt) {
+    }
+}
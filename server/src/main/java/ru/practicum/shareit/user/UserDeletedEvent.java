@@ -0,0 +1,8 @@
+package ru.practicum.shareit.user;
+
+/**
+ * Published when a user is deleted. Their items and requests go with them through ON DELETE CASCADE, so
+ * modules that keep them in memory listen for this after commit instead of being called from the user service.
+ */
+public record UserDeletedEvent(Long userId) {
+}
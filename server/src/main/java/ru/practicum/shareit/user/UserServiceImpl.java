@@ -3,8 +3,10 @@ package ru.practicum.shareit.user;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.UserAlreadyExistsException;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -19,11 +21,15 @@ import static java.util.stream.Collectors.toList;
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
     UserRepository userRepository;
+    UserCache userCache;
+    ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserDto createUser(UserDto userDto) {
         try {
-            return UserMapper.toUserDto(userRepository.save(UserMapper.toUser(userDto)));
+            User user = userRepository.save(UserMapper.toUser(userDto));
+            userCache.invalidate(user.getId());
+            return UserMapper.toUserDto(user);
         } catch (DataIntegrityViolationException e) {
             throw new UserAlreadyExistsException("Пользователь с таким email: " + userDto.getEmail() + " уже есть!");
         }
@@ -52,16 +58,21 @@ public class UserServiceImpl implements UserService {
                 throw new UserAlreadyExistsException("Пользователь с email = " + user.getEmail() + " уже существует!");
             }
         }
-        return UserMapper.toUserDto(userRepository.save(user));
+        User updated = userRepository.save(user);
+        userCache.invalidate(id);
+        return UserMapper.toUserDto(updated);
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
         Optional<User> userOptional = userRepository.findById(id);
         if (userOptional.isEmpty()) {
             throw new NotFoundException("Пользователь с таким id = " + id + " не был найден!");
         }
         userRepository.deleteById(id);
+        userCache.invalidate(id);
+        eventPublisher.publishEvent(new UserDeletedEvent(id));
     }
 
     @Override
@@ -1,4 +1,4 @@
-DROP TABLE IF EXISTS users, items, bookings, comments, requests;
+DROP TABLE IF EXISTS users, items, bookings, comments, requests, idempotency_keys;
 
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT generated BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
@@ -17,6 +17,8 @@ CREATE TABLE IF NOT EXISTS items (
     CONSTRAINT FK_ITEM_FOR_OWNER FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS IDX_ITEMS_REQUEST ON items (request_id);
+
 CREATE TABLE IF NOT EXISTS bookings (
     id BIGINT generated BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
     start_date TIMESTAMP WITHOUT TIME ZONE,
@@ -28,6 +30,8 @@ CREATE TABLE IF NOT EXISTS bookings (
     CONSTRAINT FK_BOOKING_FOR_BOOKER FOREIGN KEY (booker_id) REFERENCES users (id)
 );
 
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ITEM_PERIOD ON bookings (item_id, start_date, end_date);
+
 CREATE TABLE IF NOT EXISTS comments (
     id BIGINT generated BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
     text VARCHAR(1024) NOT NULL,
@@ -38,10 +42,26 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT FK_COMMENTS_FOR_AUTHOR FOREIGN KEY (author_id) REFERENCES users (id)
 );
 
+CREATE INDEX IF NOT EXISTS IDX_COMMENTS_ITEM_CREATED ON comments (item_id, created, id);
+
 CREATE TABLE IF NOT EXISTS requests (
     id BIGINT generated BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
     description VARCHAR(200) NOT NULL,
     requester_id BIGINT NOT NULL,
     created TIMESTAMP WITH TIME ZONE,
     CONSTRAINT FK_ITEM_REQUEST_FOR_REQUESTER FOREIGN KEY (requester_id) REFERENCES users (id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS IDX_REQUESTS_REQUESTER_CREATED ON requests (requester_id, created, id);
+CREATE INDEX IF NOT EXISTS IDX_REQUESTS_CREATED ON requests (created DESC, id DESC, requester_id);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id BIGINT generated BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    operation VARCHAR(50) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    response TEXT NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT UQ_IDEMPOTENCY_KEY UNIQUE (user_id, operation, idempotency_key)
+);
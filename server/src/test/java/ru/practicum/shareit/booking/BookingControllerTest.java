@@ -6,20 +6,35 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.idempotency.IdempotencyCache;
+import ru.practicum.shareit.idempotency.IdempotencyKeyRepository;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(BookingController.class)
+@Import(IdempotencyCache.class)
 public class BookingControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -30,6 +45,9 @@ public class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
     private BookingInputDto bookingInputDto;
 
     @BeforeEach
@@ -60,6 +78,80 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.status").value("WAITING"));
     }
 
+    @Test
+    public void testCreateBookingReplaysResponseForSameIdempotencyKey() throws Exception {
+        BookingDto bookingDto = BookingDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusHours(2))
+                .build();
+
+        when(bookingService.createBooking(any(Long.class), any(BookingDto.class)))
+                .thenReturn(bookingInputDto);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/bookings")
+                            .header("X-Sharer-User-Id", 1L)
+                            .header("Idempotency-Key", "create-booking-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(bookingDto)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(1L));
+        }
+        verify(bookingService, times(1)).createBooking(any(Long.class), any(BookingDto.class));
+    }
+
+    @Test
+    public void testCreateBookingRejectsIdempotencyKeyReusedWithDifferentBody() throws Exception {
+        BookingDto bookingDto = BookingDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusHours(2))
+                .build();
+
+        when(bookingService.createBooking(any(Long.class), any(BookingDto.class)))
+                .thenReturn(bookingInputDto);
+
+        mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("Idempotency-Key", "create-booking-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingDto)))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("Idempotency-Key", "create-booking-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(BookingDto.builder()
+                                .itemId(2L)
+                                .start(bookingDto.getStart())
+                                .end(bookingDto.getEnd())
+                                .build())))
+                .andExpect(status().isConflict());
+        verify(bookingService, times(1)).createBooking(any(Long.class), any(BookingDto.class));
+    }
+
+    @Test
+    public void testStreamBookingEvents() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        when(bookingService.streamBookingEvents(1L)).thenReturn(emitter);
+
+        MvcResult result = mockMvc.perform(get("/bookings/stream")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().name("booking").data(BookingEventDto.builder()
+                .bookingId(5L)
+                .status("APPROVED")
+                .build()));
+        emitter.complete();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("event:booking")))
+                .andExpect(content().string(containsString("\"bookingId\":5")));
+    }
+
     @Test
     public void testGetBookingById() throws Exception {
         when(bookingService.getBookingById(any(Long.class), any(Long.class)))
@@ -74,7 +166,8 @@ public class BookingControllerTest {
 
     @Test
     public void testGetBookings() throws Exception {
-        when(bookingService.getBookings(any(Long.class), any(String.class)))
+        when(bookingService.getBookings(any(Long.class), any(String.class), any(Integer.class), any(Integer.class),
+                isNull(), isNull()))
                 .thenReturn(Collections.singletonList(bookingInputDto));
 
         mockMvc.perform(get("/bookings")
@@ -87,7 +180,8 @@ public class BookingControllerTest {
 
     @Test
     public void testGetBookingsOwner() throws Exception {
-        when(bookingService.getBookingsOwner(any(Long.class), any(String.class)))
+        when(bookingService.getBookingsOwner(any(Long.class), any(String.class), any(Integer.class), any(Integer.class),
+                isNull(), isNull()))
                 .thenReturn(Collections.singletonList(bookingInputDto));
 
         mockMvc.perform(get("/bookings/owner")
@@ -115,4 +209,36 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.status").value("APPROVED"));
     }
+
+    @Test
+    public void testApproveBookings() throws Exception {
+        BookingApprovalResultDto result = BookingApprovalResultDto.builder()
+                .bookingId(1L)
+                .outcome(ApprovalOutcome.UPDATED)
+                .status("APPROVED")
+                .build();
+
+        when(bookingService.approveBookings(any(Long.class), any(BookingApprovalDto.class)))
+                .thenReturn(Collections.singletonList(result));
+
+        mockMvc.perform(patch("/bookings/approve")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookingApprovalDto(List.of(1L), true))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingId").value(1L))
+                .andExpect(jsonPath("$[0].outcome").value("UPDATED"));
+    }
+
+    @Test
+    public void testGetBookingCountsOwner() throws Exception {
+        when(bookingService.getBookingCountsOwner(any(Long.class)))
+                .thenReturn(Map.of(State.ALL, 3L, State.WAITING, 1L));
+
+        mockMvc.perform(get("/bookings/owner/counts")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ALL").value(3L))
+                .andExpect(jsonPath("$.WAITING").value(1L));
+    }
 }
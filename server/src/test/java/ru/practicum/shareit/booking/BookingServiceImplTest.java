@@ -6,23 +6,38 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserCache;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @Transactional
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
 class BookingServiceImplTest {
 
     @Autowired
@@ -31,12 +46,24 @@ class BookingServiceImplTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
     @Autowired
     private ItemRepository itemRepository;
 
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private BookingSubscriptionRegistry bookingSubscriptionRegistry;
+
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private User user;
     private Item item;
     private LocalDateTime start;
@@ -76,11 +103,35 @@ class BookingServiceImplTest {
         booking = bookingRepository.save(booking);
     }
 
+    private void commit() {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+    }
+
+    /**
+     * Events are delivered in publish order, so once this one arrives every earlier event has arrived too.
+     */
+    private BookingEventDto marker() {
+        return BookingEventDto.builder()
+                .bookingId(-1L)
+                .bookerId(user.getId())
+                .ownerId(user.getId())
+                .build();
+    }
+
+    private void deleteCommitted() {
+        TestTransaction.start();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        commit();
+    }
+
     @Test
     void createBookingTest() {
         BookingDto bookingDto = BookingDto.builder()
-                .start(start)
-                .end(end)
+                .start(end.plusMinutes(1))
+                .end(end.plusHours(1))
                 .itemId(item.getId())
                 .bookerId(user.getId())
                 .status(State.ALL.name())
@@ -114,9 +165,28 @@ class BookingServiceImplTest {
         assertEquals(Status.APPROVED.name(), bookingResponseDto.getStatus());
     }
 
+    @Test
+    void updateBookingShouldPushStatusToSubscribedUsers() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(false);
+        bookingSubscriptionRegistry.subscribe(user.getId(), emitter);
+
+        bookingService.updateBooking(user.getId(), booking.getId(), false);
+        emitter.awaitEvents(1);
+
+        assertEquals(1, emitter.events.size());
+        assertEquals(booking.getId(), emitter.events.getFirst().getBookingId());
+        assertEquals(Status.REJECTED.name(), emitter.events.getFirst().getStatus());
+        emitter.complete();
+    }
+
+    @Test
+    void streamBookingEventsShouldThrowNotFoundExceptionWhenUserNotFound() {
+        assertThrows(NotFoundException.class, () -> bookingService.streamBookingEvents(999L));
+    }
+
     @Test
     void getBookingsTest() {
-        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookings(user.getId(), State.ALL.name());
+        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookings(user.getId(), State.ALL.name(), 0, 10, null, null);
 
         assertFalse(bookingResponseDtoList.isEmpty());
         assertEquals(1, bookingResponseDtoList.size());
@@ -128,7 +198,7 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingsOwnerTest() {
-        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookingsOwner(user.getId(), State.ALL.name());
+        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookingsOwner(user.getId(), State.ALL.name(), 0, 10, null, null);
 
         assertFalse(bookingResponseDtoList.isEmpty());
         assertEquals(1, bookingResponseDtoList.size());
@@ -168,6 +238,24 @@ class BookingServiceImplTest {
         });
     }
 
+    @Test
+    void createBookingShouldThrowNotFoundExceptionWhenCachedBookerWasDeleted() {
+        User booker = userRepository.save(User.builder()
+                .name("Deleted Booker")
+                .email("deleted@test.com")
+                .build());
+        userCache.findById(booker.getId());
+        userRepository.deleteById(booker.getId());
+        userRepository.flush();
+        BookingDto bookingDto = BookingDto.builder()
+                .start(end.plusHours(1))
+                .end(end.plusHours(2))
+                .itemId(item.getId())
+                .build();
+
+        assertThrows(NotFoundException.class, () -> bookingService.createBooking(booker.getId(), bookingDto));
+    }
+
     @Test
     void createBookingShouldThrowValidationExceptionWhenItemNotAvailable() {
         item.setAvailable(false);
@@ -231,7 +319,7 @@ class BookingServiceImplTest {
     @Test
     void getBookingsShouldThrowValidationExceptionWhenUnknownState() {
         assertThrows(ValidationException.class, () -> {
-            bookingService.getBookings(user.getId(), "UNKNOWN_STATE");
+            bookingService.getBookings(user.getId(), "UNKNOWN_STATE", 0, 10, null, null);
         });
     }
 
@@ -245,14 +333,14 @@ class BookingServiceImplTest {
 
         User finalAnotherUser = anotherUser;
         assertThrows(NotFoundException.class, () -> {
-            bookingService.getBookingsOwner(finalAnotherUser.getId(), State.ALL.name());
+            bookingService.getBookingsOwner(finalAnotherUser.getId(), State.ALL.name(), 0, 10, null, null);
         });
     }
 
     @Test
     void getBookingsOwnerShouldThrowValidationExceptionWhenUnknownState() {
         assertThrows(ValidationException.class, () -> {
-            bookingService.getBookingsOwner(user.getId(), "UNKNOWN_STATE");
+            bookingService.getBookingsOwner(user.getId(), "UNKNOWN_STATE", 0, 10, null, null);
         });
     }
 
@@ -264,6 +352,16 @@ class BookingServiceImplTest {
         assertEquals(Status.APPROVED.name(), bookingResponseDto.getStatus());
     }
 
+    @Test
+    void updateBookingShouldThrowValidationExceptionWhenAlreadyApproved() {
+        bookingService.updateBooking(user.getId(), booking.getId(), true);
+
+        assertThrows(ValidationException.class, () -> {
+            bookingService.updateBooking(user.getId(), booking.getId(), false);
+        });
+        assertEquals(Status.APPROVED, bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
+    }
+
     @Test
     void updateBookingShouldSetStatusToRejectedWhenApprovedIsFalse() {
         BookingInputDto bookingResponseDto = bookingService.updateBooking(user.getId(), booking.getId(), false);
@@ -274,7 +372,7 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingsShouldReturnAllBookingsWhenStateIsAll() {
-        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookings(user.getId(), State.ALL.name());
+        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookings(user.getId(), State.ALL.name(), 0, 10, null, null);
 
         assertFalse(bookingResponseDtoList.isEmpty());
         assertEquals(1, bookingResponseDtoList.size());
@@ -282,7 +380,7 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingsShouldReturnFutureBookingsWhenStateIsFuture() {
-        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookings(user.getId(), State.FUTURE.name());
+        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookings(user.getId(), State.FUTURE.name(), 0, 10, null, null);
 
         assertFalse(bookingResponseDtoList.isEmpty());
         assertEquals(1, bookingResponseDtoList.size());
@@ -290,7 +388,7 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingsShouldReturnWaitingBookingsWhenStateIsWaiting() {
-        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookings(user.getId(), State.WAITING.name());
+        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookings(user.getId(), State.WAITING.name(), 0, 10, null, null);
 
         assertFalse(bookingResponseDtoList.isEmpty());
         assertEquals(1, bookingResponseDtoList.size());
@@ -301,7 +399,7 @@ class BookingServiceImplTest {
         booking.setStatus(Status.REJECTED);
         bookingRepository.save(booking);
 
-        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookings(user.getId(), State.REJECTED.name());
+        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookings(user.getId(), State.REJECTED.name(), 0, 10, null, null);
 
         assertFalse(bookingResponseDtoList.isEmpty());
         assertEquals(1, bookingResponseDtoList.size());
@@ -310,13 +408,13 @@ class BookingServiceImplTest {
     @Test
     void getBookingsShouldThrowValidationExceptionWhenStateIsUnknown() {
         assertThrows(ValidationException.class, () -> {
-            bookingService.getBookings(user.getId(), "UNKNOWN_STATE");
+            bookingService.getBookings(user.getId(), "UNKNOWN_STATE", 0, 10, null, null);
         });
     }
 
     @Test
     void getBookingsOwnerShouldReturnAllBookingsWhenStateIsAll() {
-        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookingsOwner(item.getOwner().getId(), State.ALL.name());
+        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookingsOwner(item.getOwner().getId(), State.ALL.name(), 0, 10, null, null);
 
         assertFalse(bookingResponseDtoList.isEmpty());
         assertEquals(1, bookingResponseDtoList.size());
@@ -324,7 +422,7 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingsOwnerShouldReturnFutureBookingsWhenStateIsFuture() {
-        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookingsOwner(item.getOwner().getId(), State.FUTURE.name());
+        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookingsOwner(item.getOwner().getId(), State.FUTURE.name(), 0, 10, null, null);
 
         assertFalse(bookingResponseDtoList.isEmpty());
         assertEquals(1, bookingResponseDtoList.size());
@@ -332,7 +430,7 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingsOwnerShouldReturnWaitingBookingsWhenStateIsWaiting() {
-        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookingsOwner(item.getOwner().getId(), State.WAITING.name());
+        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookingsOwner(item.getOwner().getId(), State.WAITING.name(), 0, 10, null, null);
 
         assertFalse(bookingResponseDtoList.isEmpty());
         assertEquals(1, bookingResponseDtoList.size());
@@ -343,7 +441,7 @@ class BookingServiceImplTest {
         booking.setStatus(Status.REJECTED);
         bookingRepository.save(booking);
 
-        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookingsOwner(item.getOwner().getId(), State.REJECTED.name());
+        List<BookingInputDto> bookingResponseDtoList = bookingService.getBookingsOwner(item.getOwner().getId(), State.REJECTED.name(), 0, 10, null, null);
 
         assertFalse(bookingResponseDtoList.isEmpty());
         assertEquals(1, bookingResponseDtoList.size());
@@ -352,7 +450,262 @@ class BookingServiceImplTest {
     @Test
     void getBookingsOwnerShouldThrowValidationExceptionWhenStateIsUnknown() {
         assertThrows(ValidationException.class, () -> {
-            bookingService.getBookingsOwner(item.getOwner().getId(), "UNKNOWN_STATE");
+            bookingService.getBookingsOwner(item.getOwner().getId(), "UNKNOWN_STATE", 0, 10, null, null);
+        });
+    }
+
+    @Test
+    void getBookingsShouldReturnRequestedPageWhenFromAndSizeGiven() {
+        Booking later = bookingRepository.save(Booking.builder()
+                .status(Status.WAITING)
+                .item(item)
+                .booker(user)
+                .start(start.plusDays(1))
+                .end(end.plusDays(1))
+                .build());
+
+        List<BookingInputDto> firstPage = bookingService.getBookings(user.getId(), State.ALL.name(), 0, 1, null, null);
+        List<BookingInputDto> secondPage = bookingService.getBookings(user.getId(), State.ALL.name(), 1, 1, null, null);
+
+        assertEquals(1, firstPage.size());
+        assertEquals(later.getId(), firstPage.get(0).getId());
+        assertEquals(1, secondPage.size());
+        assertEquals(booking.getId(), secondPage.get(0).getId());
+    }
+
+    @Test
+    void getBookingsOwnerShouldContinueAfterCursor() {
+        Booking later = bookingRepository.save(Booking.builder()
+                .status(Status.WAITING)
+                .item(item)
+                .booker(user)
+                .start(start.plusDays(1).truncatedTo(ChronoUnit.SECONDS))
+                .end(end.plusDays(1))
+                .build());
+
+        List<BookingInputDto> nextPage = bookingService.getBookingsOwner(user.getId(), State.ALL.name(), 0, 10,
+                later.getStart(), later.getId());
+
+        assertEquals(1, nextPage.size());
+        assertEquals(booking.getId(), nextPage.get(0).getId());
+    }
+
+    @Test
+    void getBookingsShouldThrowValidationExceptionWhenCursorIsIncomplete() {
+        assertThrows(ValidationException.class, () -> {
+            bookingService.getBookings(user.getId(), State.ALL.name(), 0, 10, start, null);
+        });
+    }
+
+    @Test
+    void getBookingsOwnerShouldMapProjectedItemAndBooker() {
+        BookingInputDto bookingResponseDto = bookingService.getBookingsOwner(user.getId(), State.ALL.name(), 0, 10,
+                null, null).get(0);
+
+        assertEquals(user.getEmail(), bookingResponseDto.getBooker().getEmail());
+        assertEquals(user.getName(), bookingResponseDto.getBooker().getName());
+        assertEquals(item.getName(), bookingResponseDto.getItem().getName());
+        assertEquals(user.getId(), bookingResponseDto.getItem().getOwner());
+        assertTrue(bookingResponseDto.getItem().getAvailable());
+    }
+
+    @Test
+    void createBookingShouldThrowValidationExceptionWhenPeriodOverlaps() {
+        BookingDto bookingDto = BookingDto.builder()
+                .start(start.plusMinutes(10))
+                .end(end.plusHours(1))
+                .itemId(item.getId())
+                .build();
+
+        assertThrows(ValidationException.class, () -> {
+            bookingService.createBooking(user.getId(), bookingDto);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void createBookingShouldAllowPeriodOfRejectedBooking() {
+        bookingService.updateBooking(user.getId(), booking.getId(), false);
+        BookingDto bookingDto = BookingDto.builder()
+                .start(start)
+                .end(end)
+                .itemId(item.getId())
+                .build();
+
+        BookingInputDto bookingResponseDto = bookingService.createBooking(user.getId(), bookingDto);
+
+        assertNotNull(bookingResponseDto.getId());
+        assertEquals(Status.WAITING.name(), bookingResponseDto.getStatus());
+    }
+
+    @Test
+    void createBookingShouldWaitForItemLockedByAnotherInstance() throws Exception {
+        commit();
+        BookingDto bookingDto = BookingDto.builder()
+                .start(end.plusHours(1))
+                .end(end.plusHours(2))
+                .itemId(item.getId())
+                .build();
+        CompletableFuture<BookingInputDto> result = new CompletableFuture<>();
+        Thread booker = new Thread(() -> {
+            try {
+                result.complete(bookingService.createBooking(user.getId(), bookingDto));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                itemRepository.lockById(item.getId());
+                bookingRepository.save(Booking.builder()
+                        .status(Status.WAITING)
+                        .item(item)
+                        .booker(user)
+                        .start(bookingDto.getStart())
+                        .end(bookingDto.getEnd())
+                        .build());
+                booker.start();
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (booker.getState() != Thread.State.WAITING && booker.getState() != Thread.State.TIMED_WAITING
+                        && !result.isDone() && System.nanoTime() < deadline) {
+                    Thread.onSpinWait();
+                }
+            });
+
+            ExecutionException thrown = assertThrows(ExecutionException.class,
+                    () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ValidationException.class, thrown.getCause());
+        } finally {
+            booker.join();
+            deleteCommitted();
+        }
+    }
+
+    @Test
+    void approveBookingsShouldReportOutcomePerId() {
+        User otherOwner = userRepository.save(User.builder()
+                .name("Other User")
+                .email("other@test.com")
+                .build());
+        Item otherItem = itemRepository.save(Item.builder()
+                .owner(otherOwner)
+                .name("Other Item")
+                .description("Other Description")
+                .available(true)
+                .build());
+        Booking otherBooking = bookingRepository.save(Booking.builder()
+                .status(Status.WAITING)
+                .item(otherItem)
+                .booker(user)
+                .start(start)
+                .end(end)
+                .build());
+        Long missingId = otherBooking.getId() + 1000;
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(user.getId(),
+                new BookingApprovalDto(List.of(booking.getId(), otherBooking.getId(), missingId), true));
+
+        assertEquals(3, results.size());
+        assertEquals(ApprovalOutcome.UPDATED, results.get(0).getOutcome());
+        assertEquals(Status.APPROVED.name(), results.get(0).getStatus());
+        assertEquals(ApprovalOutcome.NOT_OWNER, results.get(1).getOutcome());
+        assertEquals(ApprovalOutcome.NOT_FOUND, results.get(2).getOutcome());
+        assertEquals(Status.WAITING, bookingRepository.findById(otherBooking.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void approveBookingsTwiceShouldReportSecondCallAsNotWaiting() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(false);
+        bookingSubscriptionRegistry.subscribe(user.getId(), emitter);
+        BookingApprovalDto approval = new BookingApprovalDto(List.of(booking.getId()), true);
+
+        List<BookingApprovalResultDto> first = bookingService.approveBookings(user.getId(), approval);
+        List<BookingApprovalResultDto> second = bookingService.approveBookings(user.getId(), approval);
+        assertTrue(emitter.events.isEmpty());
+        commit();
+        BookingEventDto marker = marker();
+        bookingSubscriptionRegistry.publish(marker);
+        emitter.awaitEvents(2);
+
+        try {
+            assertEquals(ApprovalOutcome.UPDATED, first.getFirst().getOutcome());
+            assertEquals(ApprovalOutcome.NOT_WAITING, second.getFirst().getOutcome());
+            assertEquals(Status.APPROVED.name(), second.getFirst().getStatus());
+            assertEquals(2, emitter.events.size());
+            assertEquals(booking.getId(), emitter.events.getFirst().getBookingId());
+            assertEquals(marker, emitter.events.getLast());
+            assertTrue(bookingIntervalIndex.overlaps(item.getId(), start, end));
+        } finally {
+            emitter.complete();
+            deleteCommitted();
+        }
+    }
+
+    @Test
+    void approveBookingsShouldNotPublishOrIndexWhenTransactionRollsBack() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(false);
+        bookingSubscriptionRegistry.subscribe(user.getId(), emitter);
+
+        bookingService.approveBookings(user.getId(), new BookingApprovalDto(List.of(booking.getId()), true));
+        TestTransaction.end();
+        BookingEventDto marker = marker();
+        bookingSubscriptionRegistry.publish(marker);
+        emitter.awaitEvents(1);
+
+        assertEquals(List.of(marker), emitter.events);
+        assertFalse(bookingIntervalIndex.overlaps(item.getId(), start, end));
+        emitter.complete();
+    }
+
+    @Test
+    void approveBookingsShouldThrowValidationExceptionWhenBatchIsTooLarge() {
+        List<Long> bookingIds = LongStream.rangeClosed(1, 101).boxed().toList();
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.approveBookings(user.getId(), new BookingApprovalDto(bookingIds, true)));
+    }
+
+    @Test
+    void approveBookingsShouldNotRejectApprovedBooking() {
+        bookingService.approveBookings(user.getId(), new BookingApprovalDto(List.of(booking.getId()), true));
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(user.getId(),
+                new BookingApprovalDto(List.of(booking.getId()), false));
+
+        assertEquals(ApprovalOutcome.NOT_WAITING, results.getFirst().getOutcome());
+        assertEquals(Status.APPROVED.name(), results.getFirst().getStatus());
+    }
+
+    @Test
+    void getBookingCountsShouldCountEveryState() {
+        bookingRepository.save(Booking.builder()
+                .status(Status.REJECTED)
+                .item(item)
+                .booker(user)
+                .start(end.plusDays(1))
+                .end(end.plusDays(2))
+                .build());
+
+        Map<State, Long> counts = bookingService.getBookingCounts(user.getId());
+
+        assertEquals(2L, counts.get(State.ALL));
+        assertEquals(0L, counts.get(State.CURRENT));
+        assertEquals(0L, counts.get(State.PAST));
+        assertEquals(2L, counts.get(State.FUTURE));
+        assertEquals(1L, counts.get(State.WAITING));
+        assertEquals(1L, counts.get(State.REJECTED));
+    }
+
+    @Test
+    void getBookingCountsOwnerShouldReturnZerosForUserWithoutItems() {
+        User otherUser = userRepository.save(User.builder()
+                .name("Other User")
+                .email("counts@test.com")
+                .build());
+
+        Map<State, Long> counts = bookingService.getBookingCountsOwner(otherUser.getId());
+
+        assertEquals(State.values().length, counts.size());
+        assertTrue(counts.values().stream().allMatch(count -> count == 0L));
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingSubscriptionRegistryTest {
+    private final BookingSubscriptionRegistry registry = new BookingSubscriptionRegistry();
+
+    @Test
+    void publishShouldReachBookerAndOwnerOnly() throws InterruptedException {
+        RecordingEmitter booker = new RecordingEmitter(false);
+        RecordingEmitter owner = new RecordingEmitter(false);
+        RecordingEmitter stranger = new RecordingEmitter(false);
+        registry.subscribe(1L, booker);
+        registry.subscribe(2L, owner);
+        registry.subscribe(3L, stranger);
+
+        registry.publish(event(10L, "WAITING"));
+        booker.awaitEvents(1);
+        owner.awaitEvents(1);
+
+        assertEquals(List.of(10L), booker.events.stream().map(BookingEventDto::getBookingId).toList());
+        assertEquals(List.of(10L), owner.events.stream().map(BookingEventDto::getBookingId).toList());
+        assertTrue(stranger.events.isEmpty());
+    }
+
+    @Test
+    void slowConnectionShouldDropOldestEvents() throws InterruptedException {
+        RecordingEmitter slow = new RecordingEmitter(true);
+        registry.subscribe(1L, slow);
+
+        registry.publish(event(0L, "WAITING"));
+        assertTrue(slow.firstSend.await(5, TimeUnit.SECONDS));
+        int published = BookingSubscriptionRegistry.BUFFER_CAPACITY + 10;
+        for (long id = 1; id <= published; id++) {
+            registry.publish(event(id, "WAITING"));
+        }
+        slow.release.countDown();
+        slow.awaitEvents(BookingSubscriptionRegistry.BUFFER_CAPACITY + 1);
+
+        List<Long> ids = slow.events.stream().map(BookingEventDto::getBookingId).toList();
+        assertEquals(BookingSubscriptionRegistry.BUFFER_CAPACITY + 1, ids.size());
+        assertEquals(0L, ids.getFirst());
+        assertEquals(11L, ids.get(1));
+        assertEquals((long) published, ids.getLast());
+    }
+
+    @Test
+    void heartbeatShouldSendCommentToIdleConnections() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(false);
+        registry.subscribe(1L, emitter);
+
+        registry.heartbeat();
+        emitter.awaitComments(1);
+
+        assertEquals(1, emitter.comments.get());
+        assertTrue(emitter.events.isEmpty());
+    }
+
+    @Test
+    void heartbeatShouldUnsubscribeClosedConnections() throws InterruptedException {
+        RecordingEmitter open = new RecordingEmitter(false);
+        registry.subscribe(1L, open);
+        registry.subscribe(1L, new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        });
+
+        registry.heartbeat();
+        open.awaitComments(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.subscriptionCount(1L) > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, registry.subscriptionCount(1L));
+        assertEquals(1, open.comments.get());
+    }
+
+    private static BookingEventDto event(Long bookingId, String status) {
+        return BookingEventDto.builder()
+                .bookingId(bookingId)
+                .bookerId(1L)
+                .ownerId(2L)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class RecordingEmitter extends SseEmitter {
+    final List<BookingEventDto> events = new CopyOnWriteArrayList<>();
+    final AtomicInteger comments = new AtomicInteger();
+    final CountDownLatch firstSend = new CountDownLatch(1);
+    final CountDownLatch release;
+
+    RecordingEmitter(boolean blockFirstSend) {
+        release = new CountDownLatch(blockFirstSend ? 1 : 0);
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) {
+        if (builder.build().iterator().next().getData() instanceof String text && text.startsWith(":")) {
+            comments.incrementAndGet();
+        }
+        builder.build().stream()
+                .map(DataWithMediaType::getData)
+                .filter(BookingEventDto.class::isInstance)
+                .map(BookingEventDto.class::cast)
+                .forEach(events::add);
+        firstSend.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void awaitEvents(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (events.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    void awaitComments(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (comments.get() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+class IdempotencyCacheTest {
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void executeShouldRunActionOnceForSameKey() {
+        AtomicInteger calls = new AtomicInteger();
+
+        ItemDto first = idempotencyCache.execute(1L, "POST /items", "key-1", "body", ItemDto.class,
+                () -> item(calls.incrementAndGet()));
+        ItemDto second = idempotencyCache.execute(1L, "POST /items", "key-1", "body", ItemDto.class,
+                () -> item(calls.incrementAndGet()));
+
+        assertEquals(1, calls.get());
+        assertEquals(first.getId(), second.getId());
+    }
+
+    @Test
+    void executeShouldReplayStoredResponseAfterCacheIsLost() {
+        idempotencyCache.execute(2L, "POST /items", "key-2", "body", ItemDto.class, () -> item(7));
+        IdempotencyCache restarted = new IdempotencyCache(idempotencyKeyRepository, objectMapper);
+
+        ItemDto replayed = restarted.execute(2L, "POST /items", "key-2", "body", ItemDto.class, () -> item(8));
+
+        assertEquals(7L, replayed.getId());
+        assertEquals("Item 7", replayed.getName());
+    }
+
+    @Test
+    void executeShouldSeparateKeysOfDifferentUsers() {
+        idempotencyCache.execute(3L, "POST /items", "key-3", "body", ItemDto.class, () -> item(1));
+
+        ItemDto other = idempotencyCache.execute(4L, "POST /items", "key-3", "body", ItemDto.class, () -> item(2));
+
+        assertEquals(2L, other.getId());
+    }
+
+    @Test
+    void executeShouldThrowConflictExceptionWhenKeyIsReusedWithDifferentBody() {
+        idempotencyCache.execute(5L, "POST /items", "key-5", item(1), ItemDto.class, () -> item(1));
+        IdempotencyCache restarted = new IdempotencyCache(idempotencyKeyRepository, objectMapper);
+
+        assertThrows(ConflictException.class, () -> idempotencyCache.execute(5L, "POST /items", "key-5", item(2),
+                ItemDto.class, () -> item(2)));
+        assertThrows(ConflictException.class, () -> restarted.execute(5L, "POST /items", "key-5", item(2),
+                ItemDto.class, () -> item(2)));
+        assertEquals(1L, restarted.execute(5L, "POST /items", "key-5", item(1), ItemDto.class, () -> item(3))
+                .getId());
+    }
+
+    @Test
+    void executeShouldThrowValidationExceptionWhenKeyIsBlank() {
+        assertThrows(ValidationException.class, () -> {
+            idempotencyCache.execute(1L, "POST /items", " ", "body", ItemDto.class, () -> item(1));
+        });
+    }
+
+    private ItemDto item(long id) {
+        return ItemDto.builder()
+                .id(id)
+                .name("Item " + id)
+                .description("Description " + id)
+                .available(true)
+                .build();
+    }
+}
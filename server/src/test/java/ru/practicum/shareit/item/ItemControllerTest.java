@@ -10,21 +10,32 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.idempotency.IdempotencyCache;
+import ru.practicum.shareit.idempotency.IdempotencyKeyRepository;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemCommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentsDateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchQuery;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(ItemController.class)
+@Import(IdempotencyCache.class)
 public class ItemControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -32,6 +43,9 @@ public class ItemControllerTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
     @Autowired
     private ItemController itemController;
 
@@ -112,21 +126,53 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.comments[0].authorName").value("Test Author"));
     }
 
+    @Test
+    public void testGetComments() throws Exception {
+        when(itemService.getComments(1L, 5L, 20)).thenReturn(List.of(CommentDto.builder()
+                .id(4L)
+                .text("Test Comment")
+                .authorName("Test Author")
+                .build()));
+
+        mockMvc.perform(get("/items/{item-id}/comments", 1L)
+                        .param("after", "5")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(4L))
+                .andExpect(jsonPath("$[0].text").value("Test Comment"));
+    }
+
+    @Test
+    public void testGetItemsByIds() throws Exception {
+        when(itemService.getItemsByIds(List.of(1L, 2L))).thenReturn(Map.of(1L, ItemCommentDto.builder()
+                .id(1L)
+                .name("Test Item")
+                .comments(List.of())
+                .build()));
+
+        mockMvc.perform(get("/items/batch")
+                        .param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['1'].name").value("Test Item"));
+    }
+
     @Test
     public void testGetItemsByOwnerId() throws Exception {
         Long userId = 1L;
-        ItemDto itemDto1 = ItemDto.builder()
+        ItemCommentsDateDto itemDto1 = ItemCommentsDateDto.builder()
                 .name("Item 1")
                 .description("Description 1")
                 .available(true)
+                .owner(userId)
+                .requestId(5L)
                 .build();
-        ItemDto itemDto2 = ItemDto.builder()
+        ItemCommentsDateDto itemDto2 = ItemCommentsDateDto.builder()
                 .name("Item 2")
                 .description("Description 2")
                 .available(false)
                 .build();
 
-        List<ItemDto> items = Arrays.asList(itemDto1, itemDto2);
+        List<ItemCommentsDateDto> items = Arrays.asList(itemDto1, itemDto2);
 
         when(itemService.getItemsByOwnerId(userId)).thenReturn(items);
 
@@ -136,6 +182,8 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].name").value("Item 1"))
                 .andExpect(jsonPath("$[0].description").value("Description 1"))
                 .andExpect(jsonPath("$[0].available").value(true))
+                .andExpect(jsonPath("$[0].owner").value(userId))
+                .andExpect(jsonPath("$[0].requestId").value(5L))
                 .andExpect(jsonPath("$[1].name").value("Item 2"))
                 .andExpect(jsonPath("$[1].description").value("Description 2"))
                 .andExpect(jsonPath("$[1].available").value(false));
@@ -157,7 +205,11 @@ public class ItemControllerTest {
 
         List<ItemDto> items = Arrays.asList(itemDto1, itemDto2);
 
-        when(itemService.searchItems(text)).thenReturn(items);
+        when(itemService.searchItems(ItemSearchQuery.builder()
+                .text(text)
+                .from(0)
+                .size(10)
+                .build())).thenReturn(items);
 
         mockMvc.perform(get("/items/search")
                         .param("text", text))
@@ -170,6 +222,42 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[1].available").value(false));
     }
 
+    @Test
+    public void testGetItemsBySearchQueryWithFacetsShouldLeaveAvailabilityUnset() throws Exception {
+        ItemSearchQuery query = ItemSearchQuery.builder()
+                .text("дрель")
+                .filter(ItemSearchFilter.builder()
+                        .ownerIds(List.of(3L))
+                        .build())
+                .from(0)
+                .size(10)
+                .build();
+        when(itemService.searchItems(query)).thenReturn(List.of());
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .param("ownerIds", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+
+        verify(itemService).searchItems(query);
+    }
+
+    @Test
+    public void testSuggestItems() throws Exception {
+        when(itemService.suggestItems("дре", 5)).thenReturn(List.of(ItemSuggestionDto.builder()
+                .id(1L)
+                .name("Дрель")
+                .build()));
+
+        mockMvc.perform(get("/items/suggest")
+                        .param("prefix", "дре")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("Дрель"));
+    }
+
     @Test
     public void testCreateComment() throws Exception {
         Long userId = 1L;
@@ -190,4 +278,29 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.text").value("Test Comment"))
                 .andExpect(jsonPath("$.authorName").value("Test Author"));
     }
+
+    @Test
+    public void testGetAvailability() throws Exception {
+        Long itemId = 1L;
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusHours(2);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .available(true)
+                .slots(List.of(AvailabilitySlotDto.builder()
+                        .start(from)
+                        .end(to)
+                        .free(true)
+                        .build()))
+                .build();
+
+        when(itemService.getAvailability(itemId, from, to)).thenReturn(availability);
+
+        mockMvc.perform(get("/items/{item-id}/availability", itemId)
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(1L))
+                .andExpect(jsonPath("$.slots[0].free").value(true));
+    }
 }
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.ItemIndexStatusDto;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.SearchResultCache;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ItemSearchIndexController.class)
+public class ItemSearchIndexControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ItemSearchIndex itemSearchIndex;
+
+    @MockBean
+    private SearchResultCache searchResultCache;
+
+    @Test
+    public void testCheckIndex() throws Exception {
+        when(itemSearchIndex.check()).thenReturn(ItemIndexStatusDto.builder()
+                .ready(true)
+                .missingItems(1L)
+                .consistent(false)
+                .build());
+
+        mockMvc.perform(get("/admin/items/index"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.missingItems").value(1L))
+                .andExpect(jsonPath("$.consistent").value(false));
+    }
+
+    @Test
+    public void testRebuildIndex() throws Exception {
+        when(itemSearchIndex.rebuild()).thenReturn(ItemIndexStatusDto.builder()
+                .ready(true)
+                .indexedItems(5L)
+                .consistent(true)
+                .build());
+
+        mockMvc.perform(post("/admin/items/index/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.indexedItems").value(5L))
+                .andExpect(jsonPath("$.consistent").value(true));
+        verify(searchResultCache).clear();
+    }
+}
@@ -13,17 +13,27 @@ import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemCommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentsDateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemIndexStatusDto;
+import ru.practicum.shareit.item.dto.ItemSearchFilter;
+import ru.practicum.shareit.item.dto.ItemSearchQuery;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserCache;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -38,6 +48,9 @@ public class ItemServiceImplTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
     @Autowired
     private ItemRepository itemRepository;
 
@@ -50,6 +63,13 @@ public class ItemServiceImplTest {
     @Autowired
     private ItemRequestRepository itemRequestRepository;
 
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    private final ItemSearchFilter availableOnly = ItemSearchFilter.builder()
+            .available(true)
+            .build();
+
     private User testUser;
     private ItemDto itemDto1;
     private ItemDto itemDto2;
@@ -175,12 +195,49 @@ public class ItemServiceImplTest {
         assertTrue(retrievedItemDto.getComments().isEmpty());
     }
 
+    @Test
+    void getItemByIdShouldReturnLatestCommentsAndTotalCount() {
+        LocalDateTime created = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 11; i++) {
+            commentRepository.save(Comment.builder()
+                    .text("Comment " + i)
+                    .item(item)
+                    .author(testUser)
+                    .createdDate(created.plusMinutes(i))
+                    .build());
+        }
+
+        ItemCommentDto retrievedItemDto = itemService.getItemById(item.getId());
+
+        assertEquals(10, retrievedItemDto.getComments().size());
+        assertEquals(12L, retrievedItemDto.getCommentsCount());
+        assertEquals("Test Comment", retrievedItemDto.getComments().getFirst().getText());
+        assertEquals("Comment 10", retrievedItemDto.getComments().get(1).getText());
+
+        Long lastId = retrievedItemDto.getComments().getLast().getId();
+        List<CommentDto> rest = itemService.getComments(item.getId(), lastId, 10);
+
+        assertEquals(List.of("Comment 1", "Comment 0"), rest.stream().map(CommentDto::getText).toList());
+    }
+
+    @Test
+    void getCommentsShouldThrowNotFoundExceptionWhenCommentBelongsToAnotherItem() {
+        Item otherItem = itemRepository.save(Item.builder()
+                .owner(testUser)
+                .name("Other Item")
+                .description("Other Description")
+                .available(true)
+                .build());
+
+        assertThrows(NotFoundException.class, () -> itemService.getComments(otherItem.getId(), comment.getId(), 10));
+    }
+
     @Test
     void testSearchItems() {
         itemService.addItem(testUser.getId(), itemDto1);
         itemService.addItem(testUser.getId(), itemDto2);
 
-        List<ItemDto> foundItems = itemService.searchItems("Test");
+        List<ItemDto> foundItems = itemService.searchItems(query("Test").build());
 
         assertNotNull(foundItems);
         assertEquals(1, foundItems.size());
@@ -224,6 +281,19 @@ public class ItemServiceImplTest {
         });
     }
 
+    @Test
+    void addItemShouldThrowNotFoundExceptionWhenCachedOwnerWasDeleted() {
+        User owner = userRepository.save(User.builder()
+                .name("Deleted Owner")
+                .email("deleted@example.com")
+                .build());
+        userCache.findById(owner.getId());
+        userRepository.deleteById(owner.getId());
+        userRepository.flush();
+
+        assertThrows(NotFoundException.class, () -> itemService.addItem(owner.getId(), itemDto1));
+    }
+
     @Test
     void updateItemShouldThrowNotFoundExceptionWhenUserNotFound() {
         ItemDto itemDto = ItemDto.builder()
@@ -445,7 +515,7 @@ public class ItemServiceImplTest {
 
     @Test
     void searchItemsShouldReturnEmptyListWhenTextIsEmpty() {
-        List<ItemDto> foundItems = itemService.searchItems("");
+        List<ItemDto> foundItems = itemService.searchItems(query("").build());
 
         assertNotNull(foundItems);
         assertTrue(foundItems.isEmpty());
@@ -453,7 +523,7 @@ public class ItemServiceImplTest {
 
     @Test
     void searchItemsShouldReturnEmptyListWhenTextIsNull() {
-        List<ItemDto> foundItems = itemService.searchItems(null);
+        List<ItemDto> foundItems = itemService.searchItems(query(null).build());
 
         assertNotNull(foundItems);
         assertTrue(foundItems.isEmpty());
@@ -464,7 +534,7 @@ public class ItemServiceImplTest {
         itemService.addItem(testUser.getId(), itemDto1);
         itemService.addItem(testUser.getId(), itemDto2);
 
-        List<ItemDto> foundItems = itemService.searchItems("Test");
+        List<ItemDto> foundItems = itemService.searchItems(query("Test").build());
 
         assertNotNull(foundItems);
         assertEquals(1, foundItems.size());
@@ -481,4 +551,378 @@ public class ItemServiceImplTest {
             itemService.createComment(testUser.getId(), item.getId(), commentDto);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAvailabilityShouldMarkBookedHoursAsBusy() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime to = from.plusHours(6);
+        bookingRepository.save(Booking.builder()
+                .status(Status.APPROVED)
+                .item(item)
+                .booker(testUser)
+                .start(from.plusHours(2))
+                .end(from.plusHours(3).minusMinutes(30))
+                .build());
+
+        ItemAvailabilityDto availability = itemService.getAvailability(item.getId(), from, to);
+
+        assertEquals(item.getId(), availability.getItemId());
+        assertEquals(3, availability.getSlots().size());
+        assertTrue(availability.getSlots().get(0).getFree());
+        assertEquals(from.plusHours(2), availability.getSlots().get(0).getEnd());
+        assertFalse(availability.getSlots().get(1).getFree());
+        assertEquals(from.plusHours(3), availability.getSlots().get(1).getEnd());
+        assertTrue(availability.getSlots().get(2).getFree());
+        assertEquals(to, availability.getSlots().get(2).getEnd());
+    }
+
+    @Test
+    void getAvailabilityShouldThrowValidationExceptionWhenPeriodIsInvalid() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+
+        assertThrows(ValidationException.class, () -> {
+            itemService.getAvailability(item.getId(), from, from.minusHours(1));
+        });
+    }
+
+    @Test
+    void searchItemsShouldSkipItemsApprovedForRequestedPeriod() {
+        ItemDto booked = itemService.addItem(testUser.getId(), itemDto1);
+        itemService.addItem(testUser.getId(), ItemDto.builder()
+                .name("Test Item 3")
+                .description("Test Description 3")
+                .available(true)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingRepository.save(Booking.builder()
+                .status(Status.APPROVED)
+                .item(itemRepository.findById(booked.getId()).orElseThrow())
+                .booker(testUser)
+                .start(start)
+                .end(start.plusDays(2))
+                .build());
+
+        List<ItemDto> foundItems = itemService.searchItems(query("Test")
+                .start(start.plusDays(1))
+                .end(start.plusDays(3))
+                .build());
+
+        assertEquals(1, foundItems.size());
+        assertEquals("Test Item 3", foundItems.getFirst().getName());
+    }
+
+    @Test
+    void searchItemsShouldThrowValidationExceptionWhenPeriodIsIncomplete() {
+        assertThrows(ValidationException.class, () -> {
+            itemService.searchItems(query("Test").start(LocalDateTime.now()).build());
+        });
+    }
+
+    @Test
+    void getItemsByOwnerIdShouldReturnLastAndNextApprovedBookingsWithComments() {
+        LocalDateTime pastStart = LocalDateTime.now().minusDays(2).truncatedTo(ChronoUnit.SECONDS);
+        bookingRepository.insertIfFree(item.getId(), testUser.getId(), pastStart, pastStart.plusDays(1));
+        Long pastId = bookingRepository.findWaitingId(item.getId(), testUser.getId(), pastStart,
+                pastStart.plusDays(1));
+        bookingRepository.updateStatusIfWaiting(pastId, testUser.getId(), Status.APPROVED);
+
+        List<ItemCommentsDateDto> items = itemService.getItemsByOwnerId(testUser.getId());
+
+        assertEquals(1, items.size());
+        assertEquals(testUser.getId(), items.getFirst().getOwner());
+        assertEquals(item.getRequestId(), items.getFirst().getRequestId());
+        assertEquals(pastId, items.getFirst().getLastBooking().getId());
+        assertEquals(booking.getId(), items.getFirst().getNextBooking().getId());
+        assertEquals(pastStart.plusDays(1), items.getFirst().getEnd());
+        assertEquals(1, items.getFirst().getComments().size());
+        assertEquals("Test Comment", items.getFirst().getComments().getFirst().getText());
+    }
+
+    @Test
+    void searchItemsShouldTreatLikeWildcardsLiterally() {
+        itemService.addItem(testUser.getId(), itemDto1);
+
+        assertTrue(itemService.searchItems(query("%").build()).isEmpty());
+        assertTrue(itemService.searchItems(query("_").build()).isEmpty());
+    }
+
+    @Test
+    void searchItemsShouldFindItemByNewTermsAfterUpdate() {
+        ItemDto savedItemDto = itemService.addItem(testUser.getId(), itemDto1);
+        itemService.updateItem(testUser.getId(), savedItemDto.getId(), ItemUpdateDto.builder()
+                .name("Дрель ударная")
+                .build());
+
+        List<ItemDto> foundItems = itemService.searchItems(query("ДРЕЛЬ").build());
+
+        assertEquals(1, foundItems.size());
+        assertEquals(savedItemDto.getId(), foundItems.getFirst().getId());
+    }
+
+    @Test
+    void searchItemsShouldMatchTermPrefixesAndRequireEveryTerm() {
+        itemService.addItem(testUser.getId(), itemDto1);
+
+        assertEquals(1, itemService.searchItems(query("Tes Descr").build()).size());
+        assertTrue(itemService.searchItems(query("Test Drill").build()).isEmpty());
+    }
+
+    @Test
+    void searchItemsShouldSkipItemMadeUnavailable() {
+        ItemDto savedItemDto = itemService.addItem(testUser.getId(), itemDto1);
+        itemService.updateItem(testUser.getId(), savedItemDto.getId(), ItemUpdateDto.builder()
+                .available(false)
+                .build());
+
+        assertTrue(itemService.searchItems(query("Test").build()).isEmpty());
+    }
+
+    @Test
+    void rebuildSearchIndexShouldBeConsistentWithDatabase() {
+        itemService.addItem(testUser.getId(), itemDto1);
+
+        ItemIndexStatusDto status = itemSearchIndex.rebuild();
+
+        assertTrue(status.getReady());
+        assertTrue(status.getConsistent());
+        assertEquals(2L, status.getIndexedItems());
+    }
+
+    @Test
+    void searchItemsShouldTolerateTyposOnlyWhenFuzzy() {
+        itemService.addItem(testUser.getId(), ItemDto.builder()
+                .name("Дрель")
+                .description("Аккумуляторная")
+                .available(true)
+                .build());
+
+        assertTrue(itemService.searchItems(query("дрлеь").build()).isEmpty());
+        assertTrue(itemService.searchItems(query("дрлеь").fuzzy(true).build()).isEmpty());
+        assertEquals(1, itemService.searchItems(query("дрепь").fuzzy(true).build()).size());
+        assertEquals(1, itemService.searchItems(query("акуммуляторная").fuzzy(true).build())
+                .size());
+    }
+
+    @Test
+    void searchItemsShouldMatchWordFormsAfterStemming() {
+        itemService.addItem(testUser.getId(), ItemDto.builder()
+                .name("Дрель")
+                .description("Ёлочные игрушки and power drills")
+                .available(true)
+                .build());
+
+        assertEquals(1, itemService.searchItems(query("дрели").build()).size());
+        assertEquals(1, itemService.searchItems(query("елочная игрушка").build())
+                .size());
+        assertEquals(1, itemService.searchItems(query("drilling").build()).size());
+        assertEquals(1, itemService.searchItems(query("POWERED").build()).size());
+    }
+
+    @Test
+    void suggestItemsShouldFollowNameAndAvailabilityChanges() {
+        ItemDto older = itemService.addItem(testUser.getId(), ItemDto.builder()
+                .name("Шуруповёрт Makita")
+                .description("Аккумуляторный")
+                .available(true)
+                .build());
+        ItemDto newer = itemService.addItem(testUser.getId(), ItemDto.builder()
+                .name("Шуруповерт Bosch")
+                .description("Сетевой")
+                .available(true)
+                .build());
+
+        List<ItemSuggestionDto> suggestions = itemService.suggestItems("ШУРУПОВЁ", 10);
+        assertEquals(List.of(newer.getId(), older.getId()),
+                suggestions.stream().map(ItemSuggestionDto::getId).toList());
+        assertEquals("Шуруповёрт Makita", suggestions.get(1).getName());
+        assertEquals(1, itemService.suggestItems("шуруповерт", 1).size());
+        assertEquals(List.of(older.getId()),
+                itemService.suggestItems("makit", 10).stream().map(ItemSuggestionDto::getId).toList());
+
+        itemService.updateItem(testUser.getId(), older.getId(), ItemUpdateDto.builder()
+                .name("Гайковёрт Makita")
+                .build());
+        itemService.updateItem(testUser.getId(), newer.getId(), ItemUpdateDto.builder()
+                .available(false)
+                .build());
+
+        assertTrue(itemService.suggestItems("шуруповерт", 10).isEmpty());
+        assertEquals(List.of(older.getId()),
+                itemService.suggestItems("гайковерт m", 10).stream().map(ItemSuggestionDto::getId).toList());
+        assertThrows(ValidationException.class, () -> itemService.suggestItems("гайковерт", 0));
+    }
+
+    @Test
+    void searchItemsShouldRankNameMatchesFirstAndPage() {
+        ItemDto nameOld = itemService.addItem(testUser.getId(), ItemDto.builder()
+                .name("Палатка туристическая")
+                .description("Двухместная")
+                .available(true)
+                .build());
+        ItemDto description = itemService.addItem(testUser.getId(), ItemDto.builder()
+                .name("Рюкзак")
+                .description("Влезает палатка")
+                .available(true)
+                .build());
+        ItemDto nameNew = itemService.addItem(testUser.getId(), ItemDto.builder()
+                .name("Палатка зимняя")
+                .description("С печкой")
+                .available(true)
+                .build());
+
+        assertEquals(List.of(nameNew.getId(), nameOld.getId(), description.getId()),
+                itemService.searchItems(query("палатка").build()).stream()
+                        .map(ItemDto::getId)
+                        .toList());
+        assertEquals(List.of(nameOld.getId()),
+                itemService.searchItems(query("палатка").from(1).size(1).build()).stream()
+                        .map(ItemDto::getId)
+                        .toList());
+        assertEquals(List.of(nameOld.getId(), description.getId()),
+                itemService.searchItems(query("палатка").afterId(nameNew.getId()).build())
+                        .stream()
+                        .map(ItemDto::getId)
+                        .toList());
+        assertTrue(itemService.searchItems(query("палатка").afterId(description.getId()).build())
+                .isEmpty());
+        assertThrows(ValidationException.class,
+                () -> itemService.searchItems(query("палатка").size(0).build()));
+    }
+
+    @Test
+    void searchShouldRankAndPageInDatabase() {
+        ItemDto nameOld = itemService.addItem(testUser.getId(), ItemDto.builder()
+                .name("Велосипед горный")
+                .description("26 дюймов")
+                .available(true)
+                .build());
+        ItemDto description = itemService.addItem(testUser.getId(), ItemDto.builder()
+                .name("Шлем")
+                .description("Для велосипеда")
+                .available(true)
+                .build());
+        ItemDto nameNew = itemService.addItem(testUser.getId(), ItemDto.builder()
+                .name("Велосипед детский")
+                .description("С боковыми колёсами")
+                .available(true)
+                .build());
+
+        assertEquals(List.of(nameNew.getId(), nameOld.getId(), description.getId()),
+                itemRepository.search("велосипед", availableOnly, null, null, null, 0, 10).stream()
+                        .map(Item::getId)
+                        .toList());
+        assertEquals(List.of(nameOld.getId()),
+                itemRepository.search("велосипед", availableOnly, null, null, null, 1, 1).stream()
+                        .map(Item::getId)
+                        .toList());
+        assertEquals(List.of(description.getId()),
+                itemRepository.search("велосипед", availableOnly, null, null, nameOld.getId(), 0, 10).stream()
+                        .map(Item::getId)
+                        .toList());
+    }
+
+    @Test
+    void searchItemsShouldCombineFacetsWithTextMatch() {
+        User otherOwner = userRepository.save(User.builder()
+                .name("Other Owner")
+                .email("other@example.com")
+                .build());
+        ItemDto answer = itemService.addItem(testUser.getId(), ItemDto.builder()
+                .name("Байдарка")
+                .description("Надувная")
+                .available(true)
+                .requestId(itemRequest.getId())
+                .build());
+        ItemDto hidden = itemService.addItem(testUser.getId(), ItemDto.builder()
+                .name("Байдарка")
+                .description("Каркасная")
+                .available(false)
+                .build());
+        ItemDto other = itemService.addItem(otherOwner.getId(), ItemDto.builder()
+                .name("Байдарка")
+                .description("Двухместная")
+                .available(true)
+                .build());
+
+        assertEquals(List.of(other.getId(), answer.getId()), ids(ItemSearchFilter.builder()
+                .available(true)
+                .build()));
+        assertEquals(List.of(hidden.getId()), ids(ItemSearchFilter.builder()
+                .available(false)
+                .build()));
+        assertEquals(List.of(other.getId(), hidden.getId(), answer.getId()), ids(new ItemSearchFilter()));
+        assertEquals(List.of(other.getId(), answer.getId()), ids(null));
+        assertEquals(List.of(answer.getId()), ids(ItemSearchFilter.builder()
+                .available(true)
+                .requestId(itemRequest.getId())
+                .build()));
+        assertEquals(List.of(other.getId()), ids(ItemSearchFilter.builder()
+                .ownerIds(List.of(otherOwner.getId()))
+                .build()));
+        assertEquals(List.of(hidden.getId(), answer.getId()), ids(ItemSearchFilter.builder()
+                .ownerIds(List.of(testUser.getId(), -1L))
+                .build()));
+        assertEquals(List.of(hidden.getId()),
+                itemRepository.search("байдарка", ItemSearchFilter.builder()
+                                .available(false)
+                                .ownerIds(List.of(testUser.getId()))
+                                .build(), null, null, null, 0, 10).stream()
+                        .map(Item::getId)
+                        .toList());
+    }
+
+    private ItemSearchQuery.ItemSearchQueryBuilder query(String text) {
+        return ItemSearchQuery.builder()
+                .text(text)
+                .filter(availableOnly)
+                .from(0)
+                .size(10);
+    }
+
+    private List<Long> ids(ItemSearchFilter filter) {
+        return itemService.searchItems(query("байдарка").filter(filter).build()).stream()
+                .map(ItemDto::getId)
+                .toList();
+    }
+
+    @Test
+    void getItemsByIdsShouldReturnRequestedItemsWithComments() {
+        ItemDto other = itemService.addItem(testUser.getId(), itemDto1);
+
+        Map<Long, ItemCommentDto> items = itemService.getItemsByIds(List.of(other.getId(), -1L, item.getId()));
+
+        assertEquals(List.of(other.getId(), item.getId()), List.copyOf(items.keySet()));
+        assertTrue(items.get(other.getId()).getComments().isEmpty());
+        assertEquals("Test Comment", items.get(item.getId()).getComments().getFirst().getText());
+        assertThrows(ValidationException.class, () -> itemService.getItemsByIds(List.of()));
+    }
+
+    @Test
+    void getItemsByIdsShouldReturnLatestCommentsPerItemAndTotalCount() {
+        ItemDto other = itemService.addItem(testUser.getId(), itemDto1);
+        LocalDateTime created = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 11; i++) {
+            commentRepository.save(Comment.builder()
+                    .text("Comment " + i)
+                    .item(item)
+                    .author(testUser)
+                    .createdDate(created.plusMinutes(i))
+                    .build());
+        }
+
+        Map<Long, ItemCommentDto> items = itemService.getItemsByIds(List.of(item.getId(), other.getId()));
+
+        ItemCommentDto commented = items.get(item.getId());
+        assertEquals(10, commented.getComments().size());
+        assertEquals(12L, commented.getCommentsCount());
+        assertEquals("Test Comment", commented.getComments().getFirst().getText());
+        assertEquals("Comment 10", commented.getComments().get(1).getText());
+        assertEquals("Comment 2", commented.getComments().getLast().getText());
+        assertEquals(0L, items.get(other.getId()).getCommentsCount());
+    }
+
+    @Test
+    void getCommentsShouldThrowValidationExceptionWhenSizeTooLarge() {
+        assertThrows(ValidationException.class, () -> itemService.getComments(item.getId(), null, 101));
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BkTreeTest {
+    private static final List<String> TERMS = List.of("book", "cake", "books", "boo", "cape", "boon", "cook",
+            "cart", "boat", "brook", "bo", "cooking", "bookkeeper");
+
+    @Test
+    void distanceShouldStopAtCutoff() {
+        assertEquals(3, BkTree.distance("kitten", "sitting", 10));
+        assertEquals(3, BkTree.distance("kitten", "sitting", 3));
+        assertEquals(3, BkTree.distance("kitten", "sitting", 2));
+        assertEquals(2, BkTree.distance("kitten", "sitting", 1));
+        assertEquals(1, BkTree.distance("a", "abcd", 0));
+        assertEquals(0, BkTree.distance("дрель", "дрель", 0));
+    }
+
+    @Test
+    void findShouldReturnTermsWithinRadiusOrderedByDistance() {
+        BkTree tree = tree();
+
+        assertEquals(List.of(new BkTree.Match("book", 0)), tree.find("book", 0));
+        assertEquals(List.of(
+                new BkTree.Match("book", 0),
+                new BkTree.Match("boo", 1),
+                new BkTree.Match("books", 1),
+                new BkTree.Match("boon", 1),
+                new BkTree.Match("brook", 1),
+                new BkTree.Match("cook", 1)), tree.find("book", 1));
+        assertEquals(List.of(
+                new BkTree.Match("book", 0),
+                new BkTree.Match("boo", 1),
+                new BkTree.Match("books", 1),
+                new BkTree.Match("boon", 1),
+                new BkTree.Match("brook", 1),
+                new BkTree.Match("cook", 1),
+                new BkTree.Match("bo", 2),
+                new BkTree.Match("boat", 2)), tree.find("book", 2));
+        assertEquals(List.of(), tree.find("zzzz", 2));
+    }
+
+    @Test
+    void findShouldMatchExhaustiveScan() {
+        BkTree tree = tree();
+
+        for (String query : List.of("book", "cap", "coking", "bookeeper", "b", "carts")) {
+            for (int radius = 0; radius <= 3; radius++) {
+                int maxDistance = radius;
+                List<BkTree.Match> expected = TERMS.stream()
+                        .map(term -> new BkTree.Match(term, BkTree.distance(term, query, Integer.MAX_VALUE)))
+                        .filter(match -> match.distance() <= maxDistance)
+                        .sorted(Comparator.comparingInt(BkTree.Match::distance)
+                                .thenComparing(BkTree.Match::term))
+                        .toList();
+                assertEquals(expected, tree.find(query, radius), query + " within " + radius);
+            }
+        }
+    }
+
+    private static BkTree tree() {
+        BkTree tree = new BkTree();
+        TERMS.forEach(tree::add);
+        tree.add("book");
+        assertEquals(TERMS.size(), tree.size());
+        return tree;
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class PostingListTest {
+    @Test
+    void unionAllShouldMergeListsInOrderWithoutDuplicates() {
+        PostingList first = list(1, 4, 9);
+        PostingList second = list(2, 4, 10);
+        PostingList third = list(3, 9, 11);
+
+        assertArrayEquals(new long[]{1, 2, 3, 4, 9, 10, 11}, PostingList.unionAll(List.of(first, second, third)));
+        assertArrayEquals(new long[]{2, 4, 10}, PostingList.unionAll(List.of(new PostingList(), second)));
+        assertArrayEquals(new long[0], PostingList.unionAll(List.of()));
+    }
+
+    private static PostingList list(long... ids) {
+        PostingList list = new PostingList();
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+}
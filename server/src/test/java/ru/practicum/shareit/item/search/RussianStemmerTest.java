@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RussianStemmerTest {
+    @ParameterizedTest
+    @CsvSource({
+            "дрели, дрел", "дрель, дрел", "дрелью, дрел", "красивейший, красив", "красивая, красив",
+            "вагон, вагон", "вагона, вагон", "вагоне, вагон", "вагонов, вагон", "вагоном, вагон", "вагоны, вагон",
+            "важная, важн", "важнее, важн", "важнейшие, важн", "важнейшими, важн", "важничал, важнича",
+            "важно, важн", "важного, важн", "важное, важн", "важной, важн", "важную, важн", "важны, важн",
+            "важным, важн", "важности, важност", "важностию, важност", "важность, важност",
+            "палатки, палатк", "палатка, палатк", "игрушка, игрушк", "елочная, елочн",
+            "ударная, ударн", "бегущий, бегущ", "прочитавши, прочита", "одевшись, одевш",
+            "умываться, умыва", "книгами, книг", "лампочками, лампочк", "радостью, радост",
+            "организация, организац", "длинный, длин", "мощная, мощн", "я, я", "вш, вш"
+    })
+    void stemShouldFollowSnowballAlgorithm(String word, String stem) {
+        assertEquals(stem, RussianStemmer.stem(word));
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTest {
+    private SimpleMeterRegistry registry;
+    private SearchResultCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new SearchResultCache(registry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getShouldServeRepeatedNormalizedQueryFromCache() {
+        search("Дрели", false);
+        search("  дрель ", false);
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, registry.get("shareit.search.cache.requests").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(0.5, registry.get("shareit.search.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void invalidateShouldDropOnlyQueriesMatchingChangedTerms() {
+        search("дре", false);
+        search("палатка", false);
+
+        cache.invalidate("Дрель ударная", "Мощная");
+        search("дре", false);
+        search("палатка", false);
+
+        assertEquals(3, loads.get());
+        assertEquals(1.0, registry.get("shareit.search.cache.invalidations").functionCounter().count());
+    }
+
+    @Test
+    void invalidateShouldDropFuzzyQueriesWithinEditDistance() {
+        search("дрепь", true);
+        search("дрепь", false);
+
+        cache.invalidate("Дрель", "");
+        search("дрепь", true);
+        search("дрепь", false);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void getShouldNotCacheResultsWhenIndexIsNotReady() {
+        cache.get("дрель", false, () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        search("дрель", false);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onUserDeletedShouldDropCachedAndInFlightResults() {
+        search("дрель", false);
+        cache.get("палатка", false, () -> {
+            loads.incrementAndGet();
+            cache.onUserDeleted(new UserDeletedEvent(1L));
+            return Optional.of(new SearchHits(List.of(1L), 1));
+        });
+
+        search("дрель", false);
+        search("палатка", false);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void getShouldKeepSizeBounded() {
+        for (int i = 0; i < 2000; i++) {
+            search("query" + i, false);
+        }
+
+        assertTrue(registry.get("shareit.search.cache.size").gauge().value() <= 1024);
+        assertTrue(registry.get("shareit.search.cache.evictions").functionCounter().count() > 0);
+    }
+
+    private void search(String text, boolean fuzzy) {
+        cache.get(text, fuzzy, () -> {
+            loads.incrementAndGet();
+            return Optional.of(new SearchHits(List.of(1L), 1));
+        });
+    }
+}
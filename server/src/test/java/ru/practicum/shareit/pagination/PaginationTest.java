@@ -0,0 +1,26 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaginationTest {
+
+    @Test
+    void offsetShouldSkipFromElements() {
+        assertEquals(ScrollPosition.offset(), Pagination.offset(0));
+        assertEquals(ScrollPosition.offset(4), Pagination.offset(5));
+        assertThrows(ValidationException.class, () -> Pagination.offset(-1));
+        assertThrows(ValidationException.class, () -> Pagination.offset(null));
+    }
+
+    @Test
+    void limitShouldRequirePositiveSize() {
+        assertEquals(Limit.of(10), Pagination.limit(10));
+        assertThrows(ValidationException.class, () -> Pagination.limit(0));
+        assertThrows(ValidationException.class, () -> Pagination.limit(null));
+    }
+}
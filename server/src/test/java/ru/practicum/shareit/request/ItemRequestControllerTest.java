@@ -6,10 +6,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.async.DeferredResult;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestThingsDto;
+import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -57,7 +63,7 @@ public class ItemRequestControllerTest {
 
     @Test
     public void testGetAllRequests() throws Exception {
-        when(itemRequestService.getAllRequests(1L))
+        when(itemRequestService.getAllRequests(1L, 0, 10, null))
                 .thenReturn(Collections.singletonList(new ItemRequestThingsDto()));
 
         mockMvc.perform(get("/requests")
@@ -67,15 +73,41 @@ public class ItemRequestControllerTest {
                 .andExpect(jsonPath("$").isNotEmpty());
     }
 
+    @Test
+    public void testPollMatches() throws Exception {
+        DeferredResult<List<RequestMatchDto>> matches = new DeferredResult<>();
+        matches.setResult(List.of(RequestMatchDto.builder()
+                .requestId(2L)
+                .itemId(3L)
+                .itemName("Дрель")
+                .build()));
+        when(itemRequestService.pollMatches(1L, 30)).thenReturn(matches);
+
+        MvcResult result = mockMvc.perform(get("/requests/matches")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].requestId").value(2L))
+                .andExpect(jsonPath("$[0].itemName").value("Дрель"));
+    }
+
     @Test
     public void testGetAllFromUser() throws Exception {
-        when(itemRequestService.getAllByUser(1L))
-                .thenReturn(Collections.singletonList(new ItemRequestDto()));
+        when(itemRequestService.getAllByUser(1L, 0, 10, null))
+                .thenReturn(Collections.singletonList(ItemRequestWithItemsDto.builder()
+                        .id(1L)
+                        .created(LocalDateTime.of(2024, 1, 2, 3, 4, 5))
+                        .items(List.of())
+                        .build()));
 
         mockMvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", 1L))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$").isNotEmpty());
+                .andExpect(jsonPath("$[0].created").value("2024-01-02T03:04:05"))
+                .andExpect(jsonPath("$[0].items").isArray());
     }
 }
@@ -7,17 +7,28 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.async.DeferredResult;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestThingsDto;
+import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.match.RequestMatchIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserCache;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -30,6 +41,9 @@ public class ItemRequestServiceImplTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
     @Autowired
     private ItemRepository itemRepository;
 
@@ -39,6 +53,12 @@ public class ItemRequestServiceImplTest {
     @Autowired
     private ItemRequestService itemRequestService;
 
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private RequestMatchIndex requestMatchIndex;
+
     private User user;
 
     @BeforeEach
@@ -104,7 +124,7 @@ public class ItemRequestServiceImplTest {
         requestRepository.save(ItemRequestMapper.toItemRequest(requestDto1));
         requestRepository.save(ItemRequestMapper.toItemRequest(requestDto2));
 
-        List<ItemRequestThingsDto> allRequests = itemRequestService.getAllRequests(user.getId());
+        List<ItemRequestThingsDto> allRequests = itemRequestService.getAllRequests(user.getId(), 0, 10, null);
 
         assertNotNull(allRequests);
         assertEquals(2, allRequests.size());
@@ -112,6 +132,53 @@ public class ItemRequestServiceImplTest {
         assertEquals("Test Request Description 2", allRequests.get(1).getDescription());
     }
 
+    @Test
+    void getAllRequestsShouldPageByOffsetAndCursorWithAnsweringItems() {
+        LocalDateTime created = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<ItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requests.add(requestRepository.save(ItemRequest.builder()
+                    .description("Request " + i)
+                    .requester(user)
+                    .created(created.plusMinutes(i))
+                    .build()));
+        }
+        itemRepository.save(Item.builder()
+                .owner(user)
+                .name("Answer")
+                .description("Answer Description")
+                .available(true)
+                .requestId(requests.get(1).getId())
+                .build());
+
+        List<ItemRequestThingsDto> firstPage = itemRequestService.getAllRequests(user.getId(), 0, 2, null);
+        List<ItemRequestThingsDto> secondPage = itemRequestService.getAllRequests(user.getId(), 2, 2, null);
+        List<ItemRequestThingsDto> afterCursor = itemRequestService.getAllRequests(user.getId(), 0, 2,
+                firstPage.getLast().getId());
+
+        assertEquals(List.of("Request 2", "Request 1"),
+                firstPage.stream().map(ItemRequestThingsDto::getDescription).toList());
+        assertEquals("Answer", firstPage.getLast().getItems().getFirst().getName());
+        assertEquals(List.of("Request 0"), secondPage.stream().map(ItemRequestThingsDto::getDescription).toList());
+        assertEquals(secondPage, afterCursor);
+    }
+
+    @Test
+    void getAllRequestsShouldThrowNotFoundExceptionWhenCursorIsForeignRequest() {
+        User anotherUser = userRepository.save(User.builder()
+                .name("Another User")
+                .email("another@test.com")
+                .build());
+        ItemRequest foreign = requestRepository.save(ItemRequest.builder()
+                .description("Foreign Request")
+                .requester(anotherUser)
+                .created(LocalDateTime.now())
+                .build());
+
+        assertThrows(NotFoundException.class, () ->
+                itemRequestService.getAllRequests(user.getId(), 0, 10, foreign.getId()));
+    }
+
     @Test
     void testGetAllByUser() {
         User anotherUser = User.builder()
@@ -135,12 +202,119 @@ public class ItemRequestServiceImplTest {
         requestRepository.save(ItemRequestMapper.toItemRequest(requestDto1));
         requestRepository.save(ItemRequestMapper.toItemRequest(requestDto2));
 
-        List<ItemRequestDto> allRequests = itemRequestService.getAllByUser(user.getId());
+        List<ItemRequestWithItemsDto> allRequests = itemRequestService.getAllByUser(user.getId(), 0, 10, null);
 
         assertNotNull(allRequests);
         assertEquals(2, allRequests.size());
         assertEquals("Test Request Description 1", allRequests.get(0).getDescription());
         assertEquals("Test Request Description 2", allRequests.get(1).getDescription());
+        assertEquals(anotherUser.getId(), allRequests.get(0).getRequester().getId());
+        assertNotNull(allRequests.get(0).getCreated());
+    }
+
+    @Test
+    void getAllByUserShouldResumeAfterCursorAndSkipOwnRequests() {
+        User anotherUser = userRepository.save(User.builder()
+                .name("Another User")
+                .email("another@test.com")
+                .build());
+        LocalDateTime created = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<ItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requests.add(requestRepository.save(ItemRequest.builder()
+                    .description("Foreign Request " + i)
+                    .requester(anotherUser)
+                    .created(created.plusMinutes(i))
+                    .build()));
+        }
+        ItemRequest own = requestRepository.save(ItemRequest.builder()
+                .description("Own Request")
+                .requester(user)
+                .created(created.plusMinutes(1))
+                .build());
+        itemRepository.save(Item.builder()
+                .owner(user)
+                .name("Answer")
+                .description("Answer Description")
+                .available(true)
+                .requestId(requests.getFirst().getId())
+                .build());
+
+        List<ItemRequestWithItemsDto> firstPage = itemRequestService.getAllByUser(user.getId(), 0, 2, null);
+        List<ItemRequestWithItemsDto> nextPage = itemRequestService.getAllByUser(user.getId(), 0, 2,
+                firstPage.getLast().getId());
+
+        assertEquals(List.of("Foreign Request 2", "Foreign Request 1"),
+                firstPage.stream().map(ItemRequestWithItemsDto::getDescription).toList());
+        assertEquals(List.of("Foreign Request 0"),
+                nextPage.stream().map(ItemRequestWithItemsDto::getDescription).toList());
+        assertEquals("Answer", nextPage.getFirst().getItems().getFirst().getName());
+        assertThrows(NotFoundException.class, () ->
+                itemRequestService.getAllByUser(user.getId(), 0, 2, own.getId()));
+    }
+
+    @Test
+    void addItemShouldDeliverMatchToParkedPoll() throws InterruptedException {
+        User owner = userRepository.save(User.builder()
+                .name("Owner")
+                .email("owner@test.com")
+                .build());
+        ItemRequestDto request = itemRequestService.addRequest(user.getId(), ItemRequestDto.builder()
+                .description("Ищу газонокосилку на выходные")
+                .build());
+
+        DeferredResult<List<RequestMatchDto>> poll = itemRequestService.pollMatches(user.getId(), 5);
+        assertFalse(poll.hasResult());
+        ItemDto item = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Газонокосилка бензиновая")
+                .description("Косит траву")
+                .available(true)
+                .build());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!poll.hasResult() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        @SuppressWarnings("unchecked")
+        List<RequestMatchDto> matches = (List<RequestMatchDto>) poll.getResult();
+        assertNotNull(matches);
+        assertEquals(1, matches.size());
+        assertEquals(request.getId(), matches.getFirst().getRequestId());
+        assertEquals(item.getId(), matches.getFirst().getItemId());
+    }
+
+    @Test
+    void matchShouldSkipUnrelatedItemsOwnRequestsAndAnsweredRequests() {
+        ItemRequestDto request = itemRequestService.addRequest(user.getId(), ItemRequestDto.builder()
+                .description("Нужен перфоратор для ремонта")
+                .build());
+        User owner = userRepository.save(User.builder()
+                .name("Owner")
+                .email("owner@test.com")
+                .build());
+        Item perforator = Item.builder()
+                .id(1L)
+                .owner(owner)
+                .name("Перфоратор")
+                .build();
+
+        assertEquals(1, requestMatchIndex.match(perforator).size());
+        assertTrue(requestMatchIndex.match(perforator.toBuilder().name("Набор для пикника").build()).isEmpty());
+        assertTrue(requestMatchIndex.match(perforator.toBuilder().owner(user).build()).isEmpty());
+
+        itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Перфоратор ударный")
+                .description("С набором буров")
+                .available(true)
+                .requestId(request.getId())
+                .build());
+
+        assertTrue(requestMatchIndex.match(perforator).isEmpty());
+    }
+
+    @Test
+    void pollMatchesShouldThrowValidationExceptionWhenTimeoutIsTooLong() {
+        assertThrows(ValidationException.class, () -> itemRequestService.pollMatches(user.getId(), 61));
     }
 
     @Test
@@ -154,6 +328,22 @@ public class ItemRequestServiceImplTest {
         });
     }
 
+    @Test
+    void addRequestShouldThrowNotFoundExceptionWhenCachedUserWasDeleted() {
+        User requester = userRepository.save(User.builder()
+                .name("Deleted Requester")
+                .email("deleted@test.com")
+                .build());
+        userCache.findById(requester.getId());
+        userRepository.deleteById(requester.getId());
+        userRepository.flush();
+
+        assertThrows(NotFoundException.class, () -> itemRequestService.addRequest(requester.getId(),
+                ItemRequestDto.builder()
+                        .description("Test Request Description")
+                        .build()));
+    }
+
     @Test
     void getShouldThrowValidationExceptionWhenRequestNotFound() {
         assertThrows(ValidationException.class, () -> {
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.request.match;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.request.async.DeferredResult;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestMatchNotifierTest {
+    private final AtomicLong now = new AtomicLong();
+    private final RequestMatchNotifier notifier = new RequestMatchNotifier(now::get);
+
+    @AfterEach
+    void tearDown() {
+        notifier.shutdown();
+    }
+
+    @Test
+    void matchesShouldOnlyBeBufferedForRecentPollers() throws InterruptedException {
+        notifier.publish(List.of(match(1L, 10L)));
+        DeferredResult<List<RequestMatchDto>> parked = notifier.poll(2L, 1000);
+        notifier.publish(List.of(match(2L, 20L)));
+        await(parked);
+
+        DeferredResult<List<RequestMatchDto>> neverPolled = notifier.poll(1L, 1000);
+        assertFalse(neverPolled.hasResult());
+
+        notifier.publish(List.of(match(2L, 21L)));
+        notifier.publish(List.of(match(1L, 11L)));
+        await(neverPolled);
+        assertEquals(List.of(11L), itemIds(neverPolled));
+        DeferredResult<List<RequestMatchDto>> buffered = notifier.poll(2L, 1000);
+        assertEquals(List.of(21L), itemIds(buffered));
+        assertEquals(2, notifier.mailboxCount());
+
+        now.addAndGet(RequestMatchNotifier.RETENTION_NANOS);
+        notifier.poll(3L, 1000);
+        assertEquals(1, notifier.mailboxCount());
+
+        notifier.publish(List.of(match(2L, 22L)));
+        DeferredResult<List<RequestMatchDto>> marker = notifier.poll(1L, 1000);
+        notifier.publish(List.of(match(1L, 12L)));
+        await(marker);
+        assertFalse(notifier.poll(2L, 1000).hasResult());
+    }
+
+    private static void await(DeferredResult<List<RequestMatchDto>> result) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!result.hasResult() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(result.hasResult());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> itemIds(DeferredResult<List<RequestMatchDto>> result) {
+        return ((List<RequestMatchDto>) result.getResult()).stream()
+                .map(RequestMatchDto::getItemId)
+                .toList();
+    }
+
+    private static RequestMatchDto match(Long requesterId, Long itemId) {
+        return RequestMatchDto.builder()
+                .requestId(itemId)
+                .requesterId(requesterId)
+                .itemId(itemId)
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserCacheTest {
+    private UserRepository userRepository;
+    private SimpleMeterRegistry registry;
+    private AtomicLong now;
+    private UserCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        registry = new SimpleMeterRegistry();
+        now = new AtomicLong();
+        cache = new UserCache(userRepository, registry, now::get);
+    }
+
+    @Test
+    void findByIdShouldServeRepeatedLookupsFromCopies() {
+        User user = User.builder().id(1L).name("Test User").email("test@test.com").build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        User first = cache.findById(1L).orElseThrow();
+        first.setName("Changed");
+        User second = cache.findById(1L).orElseThrow();
+
+        verify(userRepository, times(1)).findById(1L);
+        assertEquals("Test User", second.getName());
+        assertNotSame(user, second);
+        assertEquals(1.0, registry.get("shareit.user.cache.requests").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("shareit.user.cache.requests").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void unknownIdShouldBeCachedUntilNegativeTtlExpires() {
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertTrue(cache.findById(2L).isEmpty());
+        assertTrue(cache.findById(2L).isEmpty());
+        verify(userRepository, times(1)).findById(2L);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        assertTrue(cache.findById(2L).isEmpty());
+        verify(userRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void invalidateShouldForceReload() {
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(User.builder().id(1L).name("Old").build()))
+                .thenReturn(Optional.of(User.builder().id(1L).name("New").build()));
+
+        cache.findById(1L);
+        cache.invalidate(1L);
+
+        assertEquals("New", cache.findById(1L).orElseThrow().getName());
+        assertEquals(1.0, registry.get("shareit.user.cache.size").gauge().value());
+    }
+
+    @Test
+    void invalidateDuringLoadShouldDropOnlyThatIdsResult() {
+        when(userRepository.findById(1L)).thenAnswer(invocation -> {
+            cache.invalidate(1L);
+            return Optional.of(User.builder().id(1L).name("Stale").build());
+        });
+        when(userRepository.findById(2L)).thenAnswer(invocation -> {
+            cache.invalidate(3L);
+            return Optional.of(User.builder().id(2L).name("Fresh").build());
+        });
+
+        cache.findById(1L);
+        cache.findById(2L);
+        cache.findById(2L);
+
+        verify(userRepository, times(1)).findById(2L);
+        assertEquals(1.0, registry.get("shareit.user.cache.size").gauge().value());
+    }
+}
@@ -7,8 +7,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.UserAlreadyExistsException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.match.RequestMatchIndex;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -26,11 +35,34 @@ public class UserServiceImplTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemNameSuggester itemNameSuggester;
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private RequestMatchIndex requestMatchIndex;
+
     @BeforeEach
     void setUp() {
         userRepository.deleteAll();
     }
 
+    private void commit() {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+    }
+
     @Test
     void testCreateUser() {
         UserDto userDto = UserDto.builder()
@@ -80,6 +112,82 @@ public class UserServiceImplTest {
         assertThrows(NotFoundException.class, () -> userService.getUserById(createdUserDto.getId()));
     }
 
+    @Test
+    void updateAndDeleteShouldInvalidateCachedUser() {
+        UserDto createdUserDto = userService.createUser(UserDto.builder()
+                .name("Cached User")
+                .email("cached@example.com")
+                .build());
+        assertEquals("Cached User", userCache.findById(createdUserDto.getId()).orElseThrow().getName());
+
+        userService.updateUser(UserDto.builder().name("Renamed User").build(), createdUserDto.getId());
+        assertEquals("Renamed User", userCache.findById(createdUserDto.getId()).orElseThrow().getName());
+
+        userService.deleteUser(createdUserDto.getId());
+        assertTrue(userCache.findById(createdUserDto.getId()).isEmpty());
+    }
+
+    @Test
+    void deleteUserShouldRemoveOwnedItemsFromIndexesAfterCommit() {
+        UserDto owner = userService.createUser(UserDto.builder()
+                .name("Owner")
+                .email("owner@example.com")
+                .build());
+        ItemDto item = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Quokkaphone")
+                .description("Deleted with its owner")
+                .available(true)
+                .build());
+        commit();
+
+        try {
+            assertEquals(1, itemNameSuggester.suggest("quokkaph", 10).orElseThrow().size());
+            assertEquals(List.of(item.getId()), itemSearchIndex.search("quokkaphone", false).orElseThrow().ids());
+            TestTransaction.start();
+            userService.deleteUser(owner.getId());
+            assertEquals(1, itemNameSuggester.suggest("quokkaph", 10).orElseThrow().size());
+            commit();
+
+            assertTrue(itemNameSuggester.suggest("quokkaph", 10).orElseThrow().isEmpty());
+            assertTrue(itemSearchIndex.search("quokkaphone", false).orElseThrow().ids().isEmpty());
+        } finally {
+            TestTransaction.start();
+            userRepository.deleteAll();
+            commit();
+        }
+    }
+
+    @Test
+    void deleteUserShouldCloseRequesterRequestsInMatchIndexAfterCommit() {
+        UserDto requester = userService.createUser(UserDto.builder()
+                .name("Requester")
+                .email("requester@example.com")
+                .build());
+        itemRequestService.addRequest(requester.getId(), ItemRequestDto.builder()
+                .description("Нужен вомбатофон")
+                .build());
+        commit();
+        Item item = Item.builder()
+                .id(1L)
+                .owner(User.builder().id(Long.MAX_VALUE).build())
+                .name("Вомбатофон")
+                .build();
+
+        try {
+            assertEquals(1, requestMatchIndex.match(item).size());
+            TestTransaction.start();
+            userService.deleteUser(requester.getId());
+            assertEquals(1, requestMatchIndex.match(item).size());
+            commit();
+
+            assertTrue(requestMatchIndex.match(item).isEmpty());
+        } finally {
+            TestTransaction.start();
+            userRepository.deleteAll();
+            commit();
+        }
+    }
+
     @Test
     void testGetUserById() {
         UserDto userDto = UserDto.builder()